@@ -0,0 +1,103 @@
+package bench;
+
+import core.Board;
+import core.GameState;
+import core.Layout;
+import core.Move;
+import core.MoveGenerator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Move generation, successor creation, hashing, equality and board copies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreBench {
+    @Param({"1", "2", "3", "4"})
+    public String puzzle;
+
+    private Board board;
+    private GameState state;
+    private GameState twin;
+    private Layout layout;
+    private MoveGenerator generator;
+    private int[] buffer;
+    private int[] moves;
+    private List<Move> moveObjects;
+
+    @Setup
+    public void setup() {
+        board = Puzzles.load(puzzle);
+        state = new GameState(board);
+        layout = state.getLayout();
+        twin = new GameState(layout, state.getPositions().clone(), null, GameState.NO_MOVE); // Equal, not identical
+        generator = new MoveGenerator(layout);
+        buffer = new int[generator.maxMoves()];
+        int count = generator.generate(state.getPositions(), buffer);
+        moves = Arrays.copyOf(buffer, count);
+        moveObjects = state.getPossibleMoves();
+    }
+
+    @Benchmark
+    public List<Move> possibleMoves() {
+        return state.getPossibleMoves();
+    }
+
+    @Benchmark
+    public int generatePacked() {
+        return generator.generate(state.getPositions(), buffer);
+    }
+
+    @Benchmark
+    public void applyPacked(Blackhole bh) {
+        for (int move : moves) bh.consume(state.applyMove(move));
+    }
+
+    @Benchmark
+    public void applyMoveObjects(Blackhole bh) {
+        for (Move move : moveObjects) bh.consume(state.applyMove(move));
+    }
+
+    @Benchmark
+    public long hash() {
+        return layout.hash(state.getPositions());
+    }
+
+    @Benchmark
+    public boolean equality() {
+        return state.equals(twin);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return state.hashCode();
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public String boardToString() {
+        return board.toString();
+    }
+}
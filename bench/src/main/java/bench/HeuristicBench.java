@@ -0,0 +1,62 @@
+package bench;
+
+import algorithm.Solvers;
+import core.GameState;
+import core.Layout;
+import heuristic.Heuristic;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Heuristic.evaluate over the first states reachable from each puzzle.
+ * Tables (PDB) are built in setup; BG's own cache is warm after the first pass, as during a search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBench {
+    private static final int SAMPLES = 512;
+
+    @Param({"1", "2", "3", "4"})
+    public String puzzle;
+
+    @Param({"md", "bp", "db", "pdb", "bg"})
+    public String heuristic;
+
+    private Heuristic h;
+    private Layout layout;
+    private byte[][] positions;
+
+    @Setup
+    public void setup() {
+        GameState start = new GameState(Puzzles.load(puzzle));
+        layout = start.getLayout();
+        List<GameState> states = Puzzles.sample(start, SAMPLES);
+        positions = new byte[SAMPLES][];
+        for (int i = 0; i < SAMPLES; i++) positions[i] = states.get(i % states.size()).getPositions();
+        h = Solvers.heuristic(heuristic);
+        h.evaluate(layout, start.getPositions());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void evaluate(Blackhole bh) {
+        for (byte[] p : positions) bh.consume(h.evaluate(layout, p));
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import core.Board;
+import core.FileParser;
+import core.GameState;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmark inputs from test/input.
+ * The directory can be set with -Dpuzzle.dir.
+ */
+final class Puzzles {
+    private Puzzles() {}
+
+    // Parse test_<id>.txt.
+    static Board load(String id) {
+        Path file = directory().resolve("test_" + id + ".txt");
+        try {
+            return new FileParser(file.toString()).parseFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Up to limit states in breadth-first order from the start.
+    static List<GameState> sample(GameState start, int limit) {
+        List<GameState> states = new ArrayList<>();
+        Set<GameState> seen = new HashSet<>();
+        ArrayDeque<GameState> queue = new ArrayDeque<>();
+        queue.add(start);
+        seen.add(start);
+        while (!queue.isEmpty() && states.size() < limit) {
+            GameState state = queue.poll();
+            states.add(state);
+            state.getPossibleMoves().forEach(move -> {
+                GameState next = state.applyMove(move);
+                if (seen.add(next)) queue.add(next);
+            });
+        }
+        return states;
+    }
+
+    private static Path directory() {
+        String configured = System.getProperty("puzzle.dir");
+        if (configured != null) return Paths.get(configured);
+        Path local = Paths.get("test", "input");
+        return Files.isDirectory(local) ? local : Paths.get("..", "test", "input"); // Run from bench/
+    }
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import algorithm.PathFinder;
+import algorithm.Solvers;
+import core.GameState;
+import heuristic.Heuristic;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full findPath on each test puzzle.
+ * The heuristic and start state are built once in setup, so PDB tables are not reloaded per call.
+ * The nodes counter reports time per expansion; gc.alloc.rate.norm divided by
+ * nodes visited per call gives bytes per expansion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBench {
+    @Param({"1", "2", "3", "4"})
+    public String puzzle;
+
+    // algorithm[:heuristic], as in batch mode.
+    @Param({"ucs", "bbfs", "gbfs:bp", "as:bp", "as:pdb", "idas:bp", "idas:bg"})
+    public String combo;
+
+    private GameState start;
+    private String algorithm;
+    private Heuristic heuristic;
+
+    /**
+     * Expansions per findPath call.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Expansions {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        start = new GameState(Puzzles.load(puzzle)); // One layout, so tables keyed by it stay cached
+        String[] parts = combo.split(":");
+        algorithm = parts[0];
+        heuristic = parts.length > 1 ? Solvers.heuristic(parts[1]) : null;
+    }
+
+    @Benchmark
+    public GameState findPath(Expansions expansions) {
+        PathFinder solver = Solvers.create(algorithm, heuristic, 1);
+        GameState solution = solver.findPath(start);
+        expansions.nodes += solver.getNodesVisited();
+        return solution;
+    }
+}
@@ -1,16 +1,32 @@
 import javax.swing.SwingUtilities;
+import java.util.Arrays;
+import ui.Batch;
+import ui.Benchmark;
 import ui.CLI;
 import ui.GUI;
 
 /**
  * Main application entry point.
- * Launches CLI or GUI.
+ * Launches CLI, GUI, batch mode, benchmarks or the corpus packer.
  */
 public class Main {
     public static void main(String[] args) {
         boolean useCLI = false;
         if (args != null) {
-            for (String arg : args) {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if ("--batch".equalsIgnoreCase(arg)) {
+                    System.exit(Batch.run(Arrays.copyOfRange(args, i + 1, args.length)));
+                }
+                if ("--bench".equalsIgnoreCase(arg)) {
+                    System.exit(Benchmark.run(Arrays.copyOfRange(args, i + 1, args.length)));
+                }
+                if ("--compare".equalsIgnoreCase(arg)) {
+                    System.exit(Benchmark.compare(Arrays.copyOfRange(args, i + 1, args.length)));
+                }
+                if ("--pack".equalsIgnoreCase(arg)) {
+                    System.exit(Batch.pack(Arrays.copyOfRange(args, i + 1, args.length)));
+                }
                 if ("--cli".equalsIgnoreCase(arg) || "-cli".equalsIgnoreCase(arg)) {
                     useCLI = true;
                     break;
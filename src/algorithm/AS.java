@@ -1,12 +1,10 @@
 package algorithm;
 
 import core.GameState;
+import core.Layout;
 import core.Move;
+import core.MoveGenerator;
 import heuristic.Heuristic;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
 
 /**
  * A* Search algorithm.
@@ -19,40 +17,64 @@ public class AS extends PathFinder {
     }
     
     @Override
-    public GameState findPath(GameState initialState) {
-        startTimer();
+    protected GameState search(GameState initialState) {
+        Layout layout = initialState.getLayout();
+        NodeArena arena = new NodeArena(layout);
+        BucketQueue openSet = new BucketQueue(); // Keyed by f = g + h
+        StateTable closedSet = new StateTable(arena, 1 << 12); // Closed nodes are never reopened
         
-        PriorityQueue<GameState> openSet = new PriorityQueue<>(
-            Comparator.comparingInt(s -> s.getCost() + heuristic.evaluate(s))
-        );
-        Set<String> closedSet = new HashSet<>(); // Visited board configurations
-        
-        openSet.add(initialState);
+        MoveGenerator generator = new MoveGenerator(layout);
+        int[] moves = new int[generator.maxMoves()];
+        byte[] positions = initialState.getPositions().clone();
+        push(openSet, arena, arena.addRoot(positions, initialState.getHash()), positions, GameState.NO_MOVE);
         
         while (!openSet.isEmpty()) {
-            GameState current = openSet.poll();
-            nodesVisited++;
+            int current = openSet.pop();
+            expanded();
             
-            if (current.getBoard().isWin()) {
-                stopTimer();
-                return current; // Solution found
+            if (arena.isWin(current)) {
+                metrics.closed = closedSet.size();
+                return arena.toGameState(current, initialState); // Solution found
             }
             
-            String boardKey = current.getBoard().toString();
-            if (closedSet.contains(boardKey)) continue;
-            closedSet.add(boardKey);
+            long hash = arena.hash(current);
+            if (closedSet.putIfAbsent(current) != StateTable.MISSING) {
+                metrics.duplicates++; // Stale copy of a closed state
+                continue;
+            }
             
-            for (Move move : current.getPossibleMoves()) {
-                GameState nextState = current.applyMove(move);
-                if (!closedSet.contains(nextState.getBoard().toString())) {
-                    openSet.add(nextState);
+            arena.copyPositions(current, positions);
+            int moveCount = generator.generate(positions, moves);
+            metrics.generated += moveCount;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                long nextHash = hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, to);
+                
+                positions[piece] = (byte) to;
+                if (closedSet.find(nextHash, positions) != StateTable.MISSING) {
+                    metrics.duplicates++;
+                } else {
+                    push(openSet, arena, arena.addChild(current, moves[i], nextHash), positions, moves[i]);
                 }
+                positions[piece] = (byte) from;
             }
+            metrics.open(openSet.size());
         }
-        stopTimer();
+        metrics.closed = closedSet.size();
         return null; // No solution
     }
     
+    // Evaluate and queue a node unless it is a dead end.
+    private void push(BucketQueue openSet, NodeArena arena, int node, byte[] positions, int move) {
+        int h = move == GameState.NO_MOVE
+                ? metrics.evaluate(heuristic, arena.layout(), positions)
+                : metrics.evaluate(heuristic, arena.estimate(arena.parent(node)), arena.layout(), positions, move);
+        arena.setEstimate(node, h);
+        if (h != Integer.MAX_VALUE) openSet.push(arena.cost(node) + h, node);
+    }
+    
     @Override
     public String getName() {
         return "A* Search";
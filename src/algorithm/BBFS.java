@@ -0,0 +1,121 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.Move;
+import core.MoveGenerator;
+
+/**
+ * Bidirectional Breadth-First Search.
+ * Searches forward from the start and backward from every goal placement.
+ */
+public class BBFS extends PathFinder {
+    private final int[] meeting = new int[4];
+
+    public BBFS() {
+        super(null);
+    }
+
+    @Override
+    protected GameState search(GameState initialState) {
+        if (initialState.isWin()) return initialState;
+
+        Layout layout = initialState.getLayout();
+        MoveGenerator generator = new MoveGenerator(layout);
+        NodeArena forward = new NodeArena(layout);
+        NodeArena backward = new NodeArena(layout);
+        StateTable forwardSeen = new StateTable(forward, 1 << 12);
+        StateTable backwardSeen = new StateTable(backward, 1 << 12);
+
+        forwardSeen.put(forward.addRoot(initialState.getPositions(), initialState.getHash()));
+        generator.forEachGoal(goal -> {
+            long hash = layout.hash(goal);
+            if (backwardSeen.find(hash, goal) == StateTable.MISSING) {
+                backwardSeen.put(backward.addRoot(goal, hash));
+            }
+        });
+
+        int[] moves = new int[Math.max(generator.maxMoves(), generator.maxPredecessors())];
+        byte[] positions = new byte[layout.getPieceCount()];
+        int forwardHead = 0, forwardEnd = forward.size();
+        int backwardHead = 0, backwardEnd = backward.size();
+
+        while (forwardHead < forwardEnd && backwardHead < backwardEnd) {
+            boolean forwardTurn = forwardEnd - forwardHead <= backwardEnd - backwardHead;
+            meeting[0] = Integer.MAX_VALUE;
+            if (forwardTurn) {
+                expandLevel(layout, generator, forward, forwardSeen, backward, backwardSeen,
+                        forwardHead, forwardEnd, true, moves, positions);
+                forwardHead = forwardEnd;
+                forwardEnd = forward.size();
+            } else {
+                expandLevel(layout, generator, backward, backwardSeen, forward, forwardSeen,
+                        backwardHead, backwardEnd, false, moves, positions);
+                backwardHead = backwardEnd;
+                backwardEnd = backward.size();
+            }
+            metrics.open(forwardEnd - forwardHead + backwardEnd - backwardHead);
+            metrics.closed = forwardSeen.size() + backwardSeen.size();
+            if (meeting[0] != Integer.MAX_VALUE) {
+                return join(forward, backward, initialState);
+            }
+        }
+        return null;
+    }
+
+    // Expand one full BFS level, recording the cheapest meeting.
+    private void expandLevel(Layout layout, MoveGenerator generator, NodeArena arena, StateTable seen,
+                             NodeArena other, StateTable otherSeen, int head, int end, boolean isForward,
+                             int[] moves, byte[] positions) {
+        for (int current = head; current < end; current++) {
+            expanded();
+            long hash = arena.hash(current);
+            arena.copyPositions(current, positions);
+            int moveCount = isForward
+                    ? generator.generate(positions, moves)
+                    : generator.generatePredecessors(positions, moves);
+            metrics.generated += moveCount;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                long nextHash = hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, to);
+                positions[piece] = (byte) to;
+                boolean known = seen.find(nextHash, positions) != StateTable.MISSING;
+                int match = known ? StateTable.MISSING : otherSeen.find(nextHash, positions);
+                positions[piece] = (byte) from;
+                if (known) {
+                    metrics.duplicates++;
+                    continue;
+                }
+
+                if (match != StateTable.MISSING) {
+                    int total = arena.cost(current) + 1 + other.cost(match);
+                    if (total < meeting[0]) {
+                        meeting[0] = total;
+                        // Forward node, forward move, backward node.
+                        meeting[1] = isForward ? current : match;
+                        meeting[2] = isForward ? moves[i] : Move.reverse(moves[i]);
+                        meeting[3] = isForward ? match : current;
+                    }
+                    continue;
+                }
+                seen.put(arena.addChild(current, moves[i], nextHash));
+            }
+        }
+    }
+
+    // Stitch the forward path, the meeting move and the backward path.
+    private GameState join(NodeArena forward, NodeArena backward, GameState initialState) {
+        GameState state = forward.toGameState(meeting[1], initialState).applyMove(meeting[2]);
+        for (int node = meeting[3]; backward.parent(node) != NodeArena.NO_PARENT; node = backward.parent(node)) {
+            state = state.applyMove(Move.reverse(backward.moveTo(node)));
+        }
+        return state;
+    }
+
+    @Override
+    public String getName() {
+        return "Bidirectional BFS";
+    }
+}
\ No newline at end of file
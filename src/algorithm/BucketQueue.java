@@ -0,0 +1,58 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Bucket priority queue of node indices.
+ * O(1) push and pop, LIFO inside each bucket.
+ */
+final class BucketQueue {
+    private int[][] buckets = new int[64][];
+    private int[] counts = new int[64];
+    private int minPriority = Integer.MAX_VALUE;
+    private int size;
+
+    // Add node with a non-negative priority.
+    void push(int priority, int node) {
+        if (priority < 0) throw new IllegalArgumentException("Negative priority: " + priority);
+        if (priority >= buckets.length) {
+            int length = Math.max(buckets.length * 2, priority + 1);
+            buckets = Arrays.copyOf(buckets, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+        int[] bucket = buckets[priority];
+        int count = counts[priority];
+        if (bucket == null) {
+            bucket = new int[16];
+            buckets[priority] = bucket;
+        } else if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, count * 2);
+            buckets[priority] = bucket;
+        }
+        bucket[count] = node;
+        counts[priority] = count + 1;
+        if (priority < minPriority) minPriority = priority;
+        size++;
+    }
+
+    // Remove most recent node of the lowest priority.
+    int pop() {
+        if (size == 0) throw new IllegalStateException("Queue is empty.");
+        while (counts[minPriority] == 0) minPriority++;
+        int node = buckets[minPriority][--counts[minPriority]];
+        size--;
+        if (size == 0) minPriority = Integer.MAX_VALUE;
+        return node;
+    }
+
+    // Lowest non-empty priority.
+    int peekPriority() {
+        if (size == 0) return Integer.MAX_VALUE;
+        while (counts[minPriority] == 0) minPriority++;
+        return minPriority;
+    }
+
+    boolean isEmpty() { return size == 0; }
+
+    int size() { return size; }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package algorithm;
+
+import core.GameState;
+import java.util.Locale;
+
+/**
+ * Solution-caching pathfinder decorator.
+ * Replays a stored move list when the same puzzle was solved by the same algorithm and heuristic before.
+ */
+public class CachedSolver extends PathFinder {
+    private final PathFinder inner;
+    private final SolutionCache cache;
+    private boolean hit;
+    private int originalNodes;
+
+    public CachedSolver(PathFinder inner, SolutionCache cache) {
+        super(inner.heuristic);
+        this.inner = inner;
+        this.cache = cache;
+    }
+
+    @Override
+    protected GameState search(GameState initialState) {
+        String heuristicName = heuristic == null ? null : heuristic.getName();
+        String algorithm = inner.getClass().getSimpleName().toLowerCase(Locale.ROOT); // Not getName, which lists threads
+        SolutionCache.Hit cached = cache.lookup(initialState, algorithm, heuristicName);
+        if (cached != null) {
+            hit = true;
+            originalNodes = cached.getNodes();
+            return cached.getSolution();
+        }
+
+        hit = false;
+        GameState solution = inner.findPath(initialState);
+        metrics.set(inner.getMetrics());
+        originalNodes = inner.getNodesVisited();
+        if (inner.getOutcome().isStopped()) abandon(inner.getOutcome()); // Not a result worth keeping
+        cache.store(initialState, algorithm, heuristicName, solution, originalNodes);
+        return solution;
+    }
+
+    // Only a real search reports progress and spends budget.
+    @Override
+    public void setListener(SearchListener listener, int interval) {
+        inner.setListener(listener, interval);
+    }
+
+    @Override
+    public void setBudget(SearchBudget budget) {
+        inner.setBudget(budget);
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken token) {
+        inner.setCancellationToken(token);
+    }
+
+    public PathFinder getInner() { return inner; }
+
+    // Whether the last result came from the cache.
+    public boolean isHit() { return hit; }
+
+    // Nodes the search that produced the last result visited.
+    public int getOriginalNodes() { return originalNodes; }
+
+    @Override
+    public String getName() {
+        return inner.getName();
+    }
+}
\ No newline at end of file
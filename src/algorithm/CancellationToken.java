@@ -0,0 +1,17 @@
+package algorithm;
+
+/**
+ * Cooperative stop signal for a running search.
+ * Solvers poll it with their budget checks; one token may stop several searches.
+ */
+public final class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,384 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.Move;
+import core.MoveGenerator;
+import heuristic.Heuristic;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash-Distributed A* Search.
+ * Each worker owns the states whose hash maps to it.
+ */
+public class HDAS extends PathFinder {
+    private static final int BATCH_SIZE = 256;
+    private static final int FLUSH_INTERVAL = 64;
+    private static final long NO_REF = -1L;
+
+    private final int threads;
+
+    public HDAS(Heuristic heuristic) {
+        this(heuristic, Runtime.getRuntime().availableProcessors());
+    }
+
+    public HDAS(Heuristic heuristic, int threads) {
+        super(heuristic);
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    @Override
+    protected GameState search(GameState initialState) {
+        Layout layout = initialState.getLayout();
+        Search search = new Search(threads);
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) workers[i] = new Worker(i, layout, search, workers);
+
+        // Seed the root as an in-flight message to its owner.
+        Batch root = new Batch(layout.getPieceCount(), owner(initialState.getHash()));
+        root.append(initialState.getPositions(), GameState.NO_MOVE, 0, initialState.getHash(), 0, NO_REF);
+        search.sent.incrementAndGet();
+        search.inFlight.incrementAndGet();
+        workers[owner(initialState.getHash())].inbox.add(root);
+
+        Thread[] pool = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            pool[i] = new Thread(workers[i], "hdas-" + i);
+            pool[i].start();
+        }
+        boolean interrupted = false;
+        for (Thread thread : pool) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    search.done = true; // Workers stop at their next loop check
+                }
+            }
+        }
+
+        for (Worker worker : workers) metrics.add(worker.counts);
+        Throwable failure = search.failure.get();
+        if (failure instanceof Error error) throw error;
+        if (failure instanceof RuntimeException exception) throw exception;
+        if (failure != null) throw new IllegalStateException("Search worker failed.", failure);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            abandon(SearchOutcome.CANCELLED);
+        }
+        checkStopped();
+        GameState result = search.goal == NO_REF ? null : rebuild(search.goal, workers, initialState);
+        return result;
+    }
+
+    // Worker owning a state hash.
+    private int owner(long hash) {
+        return (int) ((hash >>> 32) % threads);
+    }
+
+    // Follow parent references across workers back to the root.
+    private GameState rebuild(long goal, Worker[] workers, GameState root) {
+        int depth = 0;
+        for (long ref = goal; parentOf(ref, workers) != NO_REF; ref = parentOf(ref, workers)) depth++;
+
+        int[] path = new int[depth];
+        byte[] from = new byte[root.getPositions().length];
+        byte[] to = new byte[from.length];
+        Layout layout = root.getLayout();
+        long ref = goal;
+        for (int i = depth - 1; i >= 0; i--) {
+            NodeArena arena = workers[worker(ref)].arena;
+            int node = node(ref);
+            long parent = parentOf(ref, workers);
+            arena.copyPositions(node, to);
+            workers[worker(parent)].arena.copyPositions(node(parent), from);
+
+            int piece = arena.movedPiece(node);
+            int delta = to[piece] - from[piece];
+            int direction = layout.isHorizontal(piece)
+                    ? (delta < 0 ? Move.LEFT : Move.RIGHT)
+                    : (delta < 0 ? Move.UP : Move.DOWN);
+            path[i] = Move.pack(piece, direction, Math.abs(delta));
+            ref = parent;
+        }
+
+        GameState state = root;
+        for (int move : path) state = state.applyMove(move);
+        return state;
+    }
+
+    private static long parentOf(long ref, Worker[] workers) {
+        return workers[worker(ref)].parentRef(node(ref));
+    }
+
+    private static long ref(int worker, int node) { return ((long) worker << 32) | node; }
+    private static int worker(long ref) { return (int) (ref >>> 32); }
+    private static int node(long ref) { return (int) ref; }
+
+    @Override
+    public String getName() {
+        return "Parallel A* (HDA*, " + threads + " threads)";
+    }
+
+    /**
+     * Shared incumbent and termination counters.
+     * Idle workers stop once no message is in flight.
+     */
+    private static final class Search {
+        final int workers;
+        final AtomicInteger incumbent = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong inFlight = new AtomicLong();
+        final AtomicInteger idle = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>(); // First worker error
+        volatile boolean done;
+        long goal = NO_REF;
+
+        Search(int workers) {
+            this.workers = workers;
+        }
+
+        // Record a cheaper solution.
+        synchronized void offer(int cost, long ref) {
+            if (cost < incumbent.get()) {
+                incumbent.set(cost);
+                goal = ref;
+            }
+        }
+
+        // All idle, nothing in flight, and no send raced the check.
+        boolean quiescent() {
+            long before = sent.get();
+            if (inFlight.get() != 0 || idle.get() != workers || sent.get() != before) return false;
+            done = true;
+            return true;
+        }
+    }
+
+    /**
+     * Batch of successor states sent to one worker.
+     * Returned to its owner once drained, so flushes reuse arrays instead of allocating.
+     */
+    private static final class Batch {
+        final int width;
+        final int owner;
+        final byte[] positions;
+        final long[] hashes = new long[BATCH_SIZE];
+        final int[] costs = new int[BATCH_SIZE];
+        final long[] parents = new long[BATCH_SIZE];
+        final int[] moves = new int[BATCH_SIZE];
+        final int[] parentEstimates = new int[BATCH_SIZE];
+        int size;
+
+        Batch(int width, int owner) {
+            this.width = width;
+            this.owner = owner;
+            this.positions = new byte[BATCH_SIZE * width];
+        }
+
+        void append(byte[] source, int move, int parentH, long hash, int cost, long parent) {
+            System.arraycopy(source, 0, positions, size * width, width);
+            hashes[size] = hash;
+            costs[size] = cost;
+            parents[size] = parent;
+            moves[size] = move;
+            parentEstimates[size] = parentH;
+            size++;
+        }
+
+        boolean isFull() { return size == BATCH_SIZE; }
+    }
+
+    /**
+     * Search worker with a private open list, closed table and arena.
+     */
+    private final class Worker implements Runnable {
+        final int id;
+        final Search search;
+        final Worker[] peers;
+        final NodeArena arena;
+        final ConcurrentLinkedQueue<Batch> inbox = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<Batch> spare = new ConcurrentLinkedQueue<>(); // Drained batches of this worker
+        private final Layout layout;
+        private final BucketQueue openSet = new BucketQueue(); // Keyed by f = g + h
+        private final StateTable bestNodes; // Cheapest known copy of each state
+        private final Batch[] outbox;
+        private final MoveGenerator generator;
+        private final int[] moves;
+        private final byte[] positions;
+        private final byte[] incoming;
+        private int[] parentWorkers = new int[1024];
+        private int sinceFlush;
+        private long reported;
+        final SearchMetrics counts = new SearchMetrics();
+
+        Worker(int id, Layout layout, Search search, Worker[] peers) {
+            this.id = id;
+            this.layout = layout;
+            this.search = search;
+            this.peers = peers;
+            this.arena = new NodeArena(layout);
+            this.bestNodes = new StateTable(arena, 1 << 12);
+            this.outbox = new Batch[threads];
+            this.generator = new MoveGenerator(layout);
+            this.moves = new int[generator.maxMoves()];
+            this.positions = new byte[layout.getPieceCount()];
+            this.incoming = new byte[layout.getPieceCount()];
+        }
+
+        @Override
+        public void run() {
+            try {
+                loop();
+            } catch (Throwable t) {
+                search.failure.compareAndSet(null, t);
+            } finally {
+                search.done = true; // A failed worker must not leave the others waiting for quiescence
+                counts.closed = bestNodes.size();
+            }
+        }
+
+        private void loop() {
+            boolean idle = false;
+            while (!search.done) {
+                Batch batch = inbox.poll();
+                if (batch != null) {
+                    if (idle) {
+                        idle = false;
+                        search.idle.decrementAndGet();
+                    }
+                    receive(batch);
+                    search.inFlight.addAndGet(-batch.size);
+                    batch.size = 0;
+                    peers[batch.owner].spare.add(batch);
+                    continue;
+                }
+                if (!openSet.isEmpty() && openSet.peekPriority() < search.incumbent.get()) {
+                    expand(openSet.pop());
+                    if (++sinceFlush >= FLUSH_INTERVAL) flush();
+                    continue;
+                }
+                flush();
+                if (!idle) {
+                    idle = true;
+                    search.idle.incrementAndGet();
+                }
+                if (search.quiescent()) break;
+                LockSupport.parkNanos(20_000);
+            }
+        }
+
+        // Parent reference of a local node.
+        long parentRef(int node) {
+            int parent = arena.parent(node);
+            return parent == NodeArena.NO_PARENT ? NO_REF : ref(parentWorkers[node], parent);
+        }
+
+        private void receive(Batch batch) {
+            for (int i = 0; i < batch.size; i++) {
+                System.arraycopy(batch.positions, i * batch.width, incoming, 0, batch.width);
+                long parent = batch.parents[i];
+                int parentNode = parent == NO_REF ? NodeArena.NO_PARENT : node(parent);
+                int parentWorker = parent == NO_REF ? -1 : worker(parent);
+                insert(incoming, batch.hashes[i], batch.costs[i], parentWorker, parentNode,
+                        batch.moves[i], batch.parentEstimates[i]);
+            }
+        }
+
+        // Add a state unless an equal or cheaper copy is known.
+        private void insert(byte[] state, long hash, int cost, int parentWorker, int parentNode, int move, int parentH) {
+            int known = bestNodes.find(hash, state);
+            if (known != StateTable.MISSING && arena.cost(known) <= cost) {
+                counts.duplicates++;
+                return;
+            }
+            int h = move == GameState.NO_MOVE
+                    ? counts.evaluate(heuristic, layout, state)
+                    : counts.evaluate(heuristic, parentH, layout, state, move);
+            if (h == Integer.MAX_VALUE || cost + h >= search.incumbent.get()) return;
+            if (known != StateTable.MISSING) counts.reExpansions++; // Reopened at a lower cost
+
+            int node = arena.addNode(state, 0, hash, parentNode, move == GameState.NO_MOVE ? 0 : Move.pieceOf(move), cost);
+            bestNodes.put(node);
+            if (node == parentWorkers.length) parentWorkers = Arrays.copyOf(parentWorkers, node * 2);
+            parentWorkers[node] = parentWorker;
+            arena.setEstimate(node, h);
+            openSet.push(cost + h, node);
+            counts.open(openSet.size());
+        }
+
+        private void expand(int current) {
+            long hash = arena.hash(current);
+            int cost = arena.cost(current);
+            if (bestNodes.find(current) != current) {
+                counts.duplicates++;
+                return; // Superseded by a cheaper copy
+            }
+            counts.expanded++;
+
+            if (arena.isWin(current)) {
+                search.offer(cost, ref(id, current));
+                return;
+            }
+
+            arena.copyPositions(current, positions);
+            long self = ref(id, current);
+            int parentH = arena.estimate(current);
+            int moveCount = generator.generate(positions, moves);
+            counts.generated += moveCount;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                long nextHash = hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, to);
+
+                positions[piece] = (byte) to;
+                int target = owner(nextHash);
+                if (target == id) {
+                    insert(positions, nextHash, cost + 1, id, current, moves[i], parentH);
+                } else {
+                    Batch batch = outbox[target];
+                    if (batch == null) batch = outbox[target] = obtainBatch();
+                    batch.append(positions, moves[i], parentH, nextHash, cost + 1, self);
+                    if (batch.isFull()) send(target);
+                }
+                positions[piece] = (byte) from;
+            }
+        }
+
+        // Send all pending batches.
+        private void flush() {
+            sinceFlush = 0;
+            if (isWatched() && counts.expanded != reported) {
+                if (!expandedShared(counts.expanded - reported)) search.done = true; // Budget spent or cancelled
+                reported = counts.expanded;
+            }
+            for (int target = 0; target < outbox.length; target++) {
+                if (outbox[target] != null && outbox[target].size > 0) send(target);
+            }
+        }
+
+        // A drained batch of this worker, or a new one.
+        private Batch obtainBatch() {
+            Batch batch = spare.poll();
+            return batch != null ? batch : new Batch(positions.length, id);
+        }
+
+        private void send(int target) {
+            Batch batch = outbox[target];
+            outbox[target] = null;
+            search.sent.addAndGet(batch.size);
+            search.inFlight.addAndGet(batch.size);
+            peers[target].inbox.add(batch);
+        }
+    }
+}
\ No newline at end of file
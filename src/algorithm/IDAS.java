@@ -1,95 +1,205 @@
 package algorithm;
 
 import core.GameState;
+import core.Layout;
 import core.Move;
+import core.SearchBoard;
 import heuristic.Heuristic;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Iterative Deepening A*.
- * Depth-first with threshold.
+ * Depth-first with threshold, driven by an explicit frame stack.
  */
 public class IDAS extends PathFinder {
-    private GameState solutionState;
-    
+    private static final int FOUND = -1;
+    private static final int EXPANDED = -2;
+
+    private SearchBoard board;
+    private Layout layout;
+    private final int tableMegabytes;
+    private TranspositionTable table;
+    private int iteration;
+    private int solutionDepth;
+    private final List<Iteration> iterations = new ArrayList<>();
+
+    // Frame arrays indexed by depth (= g).
+    private int[][] moveStack = new int[0][];
+    private int[] moveCount = new int[0];
+    private int[] moveIndex = new int[0];
+    private int[] minNext = new int[0];
+    private int[] lastPiece = new int[0];
+    private int[] lastFrom = new int[0];
+    private int[] estimate = new int[0];
+    private int[] path = new int[0];
+
     public IDAS(Heuristic heuristic) {
+        this(heuristic, 0);
+    }
+
+    // Heuristic plus transposition table size in MB, 0 to disable.
+    public IDAS(Heuristic heuristic, int tableMegabytes) {
         super(heuristic);
+        if (tableMegabytes < 0) throw new IllegalArgumentException("Negative table size: " + tableMegabytes);
+        this.tableMegabytes = tableMegabytes;
     }
-    
+
     @Override
-    public GameState findPath(GameState initialState) {
-        startTimer();
-        solutionState = null;
-        
-        int threshold = heuristic.evaluate(initialState);
-        
-        while (solutionState == null) {
-            SearchResult result = searchRecursive(initialState, 0, threshold);
-            nodesVisited += result.nodesThisIteration;
-
-            if (result.status == SearchStatus.FOUND) {
-                stopTimer();
-                return solutionState;
-            }
-            if (result.status == SearchStatus.NOT_FOUND_EXHAUSTED) {
-                stopTimer();
-                return null;
+    protected GameState search(GameState initialState) {
+        board = new SearchBoard(initialState);
+        layout = board.getLayout();
+        table = tableMegabytes > 0 ? new TranspositionTable(tableMegabytes) : null;
+        iteration = 0;
+        iterations.clear();
+        moveStack = new int[0][];
+        ensureDepth(16);
+
+        int threshold = metrics.evaluate(heuristic, layout, board.getPositions());
+        int previousNodes = 0;
+
+        while (threshold != Integer.MAX_VALUE) {
+            iteration++;
+            long nodesBefore = metrics.expanded;
+            long start = System.nanoTime();
+            int result = search(threshold);
+            int nodes = (int) (metrics.expanded - nodesBefore);
+            iterations.add(new Iteration(threshold, nodes, System.nanoTime() - start));
+            metrics.reExpansions += Math.min(previousNodes, nodes); // Earlier iterations are searched again
+            previousNodes = nodes;
+            if (table != null) metrics.closed = table.size();
+
+            if (result == FOUND) {
+                return rebuild(initialState);
             }
-            threshold = result.nextThreshold; 
+            threshold = result;
         }
-        stopTimer(); 
-        return solutionState; 
+        return null; // Every branch exhausted
     }
-    
-    private SearchResult searchRecursive(GameState state, int gCost, int currentThreshold) {
-        int fCost = gCost + heuristic.evaluate(state);
-        int nodesThisIteration = 1; 
 
-        if (fCost > currentThreshold) {
-            return new SearchResult(SearchStatus.NOT_FOUND_WITHIN_THRESHOLD, fCost, nodesThisIteration);
-        }
-        
-        if (state.getBoard().isWin()) {
-            solutionState = state;
-            return new SearchResult(SearchStatus.FOUND, fCost, nodesThisIteration);
-        }
-        
-        int minNextThreshold = Integer.MAX_VALUE;
-        
-        for (Move move : state.getPossibleMoves()) {
-            GameState nextState = state.applyMove(move);
-            if (state.getParent() != null && nextState.getBoard().toString().equals(state.getParent().getBoard().toString())) {
+    // Statistics of each threshold iteration of the last search.
+    public List<Iteration> getIterations() {
+        return Collections.unmodifiableList(iterations);
+    }
+
+    // One threshold iteration; return FOUND or the next threshold.
+    private int search(int threshold) {
+        int root = enter(0, threshold, -1, 0);
+        if (root != EXPANDED) return root;
+
+        int depth = 0;
+        while (true) {
+            if (moveIndex[depth] == moveCount[depth]) {
+                // Frame exhausted, pop and fold its minimum into the parent.
+                int min = minNext[depth];
+                if (depth == 0) return min;
+                depth--;
+                board.undoMove(path[depth]);
+                if (min < minNext[depth]) minNext[depth] = min;
                 continue;
             }
 
-            SearchResult result = searchRecursive(nextState, gCost + 1, currentThreshold);
-            nodesThisIteration += result.nodesThisIteration;
-
-            if (result.status == SearchStatus.FOUND) {
-                return new SearchResult(SearchStatus.FOUND, fCost, nodesThisIteration);
+            int move = moveStack[depth][moveIndex[depth]++];
+            int piece = Move.pieceOf(move);
+            int from = board.offset(piece);
+            if (piece == lastPiece[depth] && from + Move.deltaOf(move) == lastFrom[depth]) {
+                metrics.duplicates++;
+                continue; // Back to the parent
             }
-            if (result.nextThreshold < minNextThreshold) {
-                minNextThreshold = result.nextThreshold;
+
+            board.doMove(move);
+            path[depth] = move;
+            int child = enter(depth + 1, threshold, piece, from);
+            if (child == FOUND) return FOUND;
+            if (child == EXPANDED) {
+                depth++;
+                continue;
             }
+            board.undoMove(move);
+            if (child < minNext[depth]) minNext[depth] = child;
         }
-        return new SearchResult(SearchStatus.NOT_FOUND_WITHIN_THRESHOLD, minNextThreshold, nodesThisIteration);
     }
 
-    private enum SearchStatus { FOUND, NOT_FOUND_WITHIN_THRESHOLD, NOT_FOUND_EXHAUSTED }
+    // Visit the current board; push a frame and return EXPANDED, or return a cutoff.
+    private int enter(int gCost, int threshold, int piece, int from) {
+        expanded();
+        int h = gCost == 0
+                ? metrics.evaluate(heuristic, layout, board.getPositions())
+                : metrics.evaluate(heuristic, estimate[gCost - 1], layout, board.getPositions(), path[gCost - 1]);
+        if (h == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+        int fCost = gCost + h;
 
-    private static class SearchResult {
-        final SearchStatus status;
-        final int nextThreshold;
-        final int nodesThisIteration;
+        if (fCost > threshold) return fCost;
+
+        if (board.isWin()) {
+            solutionDepth = gCost;
+            return FOUND;
+        }
 
-        SearchResult(SearchStatus status, int nextThreshold, int nodesThisIteration) {
-            this.status = status;
-            this.nextThreshold = nextThreshold;
-            this.nodesThisIteration = nodesThisIteration;
+        // Transposition already searched with no more budget.
+        if (table != null && !table.visit(board.getHash(), gCost, iteration)) {
+            metrics.duplicates++;
+            return Integer.MAX_VALUE;
         }
+
+        ensureDepth(gCost + 1);
+        moveCount[gCost] = board.generateMoves(moveStack[gCost]);
+        metrics.generated += moveCount[gCost];
+        metrics.open(gCost + 1); // Frames on the stack
+        moveIndex[gCost] = 0;
+        minNext[gCost] = Integer.MAX_VALUE;
+        lastPiece[gCost] = piece;
+        lastFrom[gCost] = from;
+        estimate[gCost] = h;
+        return EXPANDED;
+    }
+
+    // Replay the move stack from the initial state.
+    private GameState rebuild(GameState initialState) {
+        GameState state = initialState;
+        for (int i = 0; i < solutionDepth; i++) state = state.applyMove(path[i]);
+        return state;
     }
-    
+
+    // Grow frame arrays to hold a depth.
+    private void ensureDepth(int depth) {
+        if (depth < moveStack.length) return;
+        int length = Math.max(depth + 1, moveStack.length * 2);
+        int old = moveStack.length;
+        moveStack = Arrays.copyOf(moveStack, length);
+        for (int i = old; i < length; i++) moveStack[i] = new int[board.maxMoves()];
+        moveCount = Arrays.copyOf(moveCount, length);
+        moveIndex = Arrays.copyOf(moveIndex, length);
+        minNext = Arrays.copyOf(minNext, length);
+        lastPiece = Arrays.copyOf(lastPiece, length);
+        lastFrom = Arrays.copyOf(lastFrom, length);
+        estimate = Arrays.copyOf(estimate, length);
+        path = Arrays.copyOf(path, length);
+    }
+
     @Override
     public String getName() {
-        return "Iterative Deepening A*";
+        return table != null ? "Iterative Deepening A* (" + tableMegabytes + " MB table)" : "Iterative Deepening A*";
+    }
+
+    /**
+     * Threshold, nodes and elapsed time of one iteration.
+     */
+    public static final class Iteration {
+        private final int threshold;
+        private final int nodes;
+        private final long nanos;
+
+        Iteration(int threshold, int nodes, long nanos) {
+            this.threshold = threshold;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public int getThreshold() { return threshold; }
+        public int getNodes() { return nodes; }
+        public long getNanos() { return nanos; }
     }
 }
\ No newline at end of file
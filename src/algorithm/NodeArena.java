@@ -0,0 +1,163 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.Move;
+import java.util.Arrays;
+
+/**
+ * Search tree stored as parallel primitive arrays.
+ * Nodes are int indices; storage grows in fixed-size chunks.
+ */
+final class NodeArena {
+    static final int NO_PARENT = -1;
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Layout layout;
+    private final int width;
+    private byte[][] positions = new byte[16][];
+    private long[][] hashes = new long[16][];
+    private int[][] parents = new int[16][];
+    private byte[][] movedPieces = new byte[16][];
+    private int[][] costs = new int[16][];
+    private int[][] estimates = new int[16][];
+    private int size;
+
+    NodeArena(Layout layout) {
+        this.layout = layout;
+        this.width = layout.getPieceCount();
+    }
+
+    // Add a root node.
+    int addRoot(byte[] rootPositions, long hash) {
+        int node = allocate();
+        System.arraycopy(rootPositions, 0, positions[node >>> CHUNK_BITS], (node & CHUNK_MASK) * width, width);
+        hashes[node >>> CHUNK_BITS][node & CHUNK_MASK] = hash;
+        parents[node >>> CHUNK_BITS][node & CHUNK_MASK] = NO_PARENT;
+        costs[node >>> CHUNK_BITS][node & CHUNK_MASK] = 0;
+        return node;
+    }
+
+    // Add a child reached by a packed move.
+    int addChild(int parent, int move, long hash) {
+        int node = allocate();
+        int piece = Move.pieceOf(move);
+        byte[] from = positions[parent >>> CHUNK_BITS];
+        byte[] to = positions[node >>> CHUNK_BITS];
+        int toBase = (node & CHUNK_MASK) * width;
+        System.arraycopy(from, (parent & CHUNK_MASK) * width, to, toBase, width);
+        to[toBase + piece] += (byte) Move.deltaOf(move);
+
+        int chunk = node >>> CHUNK_BITS;
+        int slot = node & CHUNK_MASK;
+        hashes[chunk][slot] = hash;
+        parents[chunk][slot] = parent;
+        movedPieces[chunk][slot] = (byte) piece;
+        costs[chunk][slot] = cost(parent) + 1;
+        return node;
+    }
+
+    // Add a node from explicit positions.
+    int addNode(byte[] source, int sourceOffset, long hash, int parent, int movedPiece, int cost) {
+        int node = allocate();
+        int chunk = node >>> CHUNK_BITS;
+        int slot = node & CHUNK_MASK;
+        System.arraycopy(source, sourceOffset, positions[chunk], slot * width, width);
+        hashes[chunk][slot] = hash;
+        parents[chunk][slot] = parent;
+        movedPieces[chunk][slot] = (byte) movedPiece;
+        costs[chunk][slot] = cost;
+        return node;
+    }
+
+    Layout layout() { return layout; }
+    long hash(int node) { return hashes[node >>> CHUNK_BITS][node & CHUNK_MASK]; }
+    int parent(int node) { return parents[node >>> CHUNK_BITS][node & CHUNK_MASK]; }
+    int movedPiece(int node) { return movedPieces[node >>> CHUNK_BITS][node & CHUNK_MASK] & 0xFF; }
+    int cost(int node) { return costs[node >>> CHUNK_BITS][node & CHUNK_MASK]; }
+    int estimate(int node) { return estimates[node >>> CHUNK_BITS][node & CHUNK_MASK]; }
+    void setEstimate(int node, int h) { estimates[node >>> CHUNK_BITS][node & CHUNK_MASK] = h; }
+    int size() { return size; }
+
+    // Lane offset of a piece.
+    int offset(int node, int piece) {
+        return positions[node >>> CHUNK_BITS][(node & CHUNK_MASK) * width + piece];
+    }
+
+    // Whether a node holds these positions.
+    boolean matches(int node, byte[] state) {
+        int from = (node & CHUNK_MASK) * width;
+        return Arrays.equals(positions[node >>> CHUNK_BITS], from, from + width, state, 0, width);
+    }
+
+    // Whether two nodes hold the same positions.
+    boolean sameState(int a, int b) {
+        int fromA = (a & CHUNK_MASK) * width;
+        int fromB = (b & CHUNK_MASK) * width;
+        return Arrays.equals(positions[a >>> CHUNK_BITS], fromA, fromA + width,
+                positions[b >>> CHUNK_BITS], fromB, fromB + width);
+    }
+
+    // Copy node positions into a buffer.
+    void copyPositions(int node, byte[] target) {
+        System.arraycopy(positions[node >>> CHUNK_BITS], (node & CHUNK_MASK) * width, target, 0, width);
+    }
+
+    // Check win condition.
+    boolean isWin(int node) {
+        int primary = layout.getPrimaryIndex();
+        return primary != -1 && layout.isWinningOffset(offset(node, primary));
+    }
+
+    // Packed move from parent to node.
+    int moveTo(int node) {
+        int piece = movedPiece(node);
+        int delta = offset(node, piece) - offset(parent(node), piece);
+        int direction = layout.isHorizontal(piece)
+                ? (delta < 0 ? Move.LEFT : Move.RIGHT)
+                : (delta < 0 ? Move.UP : Move.DOWN);
+        return Move.pack(piece, direction, Math.abs(delta));
+    }
+
+    // Rebuild the GameState chain from the root.
+    GameState toGameState(int node, GameState root) {
+        int depth = 0;
+        for (int n = node; parent(n) != NO_PARENT; n = parent(n)) depth++;
+        int[] path = new int[depth];
+        for (int n = node, i = depth - 1; i >= 0; n = parent(n), i--) path[i] = moveTo(n);
+
+        GameState state = root;
+        for (int move : path) state = state.applyMove(move);
+        return state;
+    }
+
+    // Approximate heap footprint in bytes.
+    long memoryBytes() {
+        long chunks = (size + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        return chunks * CHUNK_SIZE * (width + 8L + 4 + 1 + 4 + 4);
+    }
+
+    private int allocate() {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == positions.length) {
+            int length = positions.length * 2;
+            positions = Arrays.copyOf(positions, length);
+            hashes = Arrays.copyOf(hashes, length);
+            parents = Arrays.copyOf(parents, length);
+            movedPieces = Arrays.copyOf(movedPieces, length);
+            costs = Arrays.copyOf(costs, length);
+            estimates = Arrays.copyOf(estimates, length);
+        }
+        if (positions[chunk] == null) {
+            positions[chunk] = new byte[CHUNK_SIZE * width];
+            hashes[chunk] = new long[CHUNK_SIZE];
+            parents[chunk] = new int[CHUNK_SIZE];
+            movedPieces[chunk] = new byte[CHUNK_SIZE];
+            costs[chunk] = new int[CHUNK_SIZE];
+            estimates[chunk] = new int[CHUNK_SIZE];
+        }
+        return size++;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,234 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.Move;
+import core.MoveGenerator;
+import heuristic.Heuristic;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel Iterative Deepening A*.
+ * Top levels of each iteration are forked onto a work-stealing pool.
+ */
+public class PIDAS extends PathFinder {
+    private static final int SPLIT_DEPTH = 3;
+    private static final int REPORT_MASK = 1023;
+
+    private final int threads;
+
+    public PIDAS(Heuristic heuristic) {
+        this(heuristic, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PIDAS(Heuristic heuristic, int threads) {
+        super(heuristic);
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    @Override
+    protected GameState search(GameState initialState) {
+        Layout layout = initialState.getLayout();
+        byte[] root = initialState.getPositions();
+        int threshold = metrics.evaluate(heuristic, layout, root);
+        AtomicReference<int[]> found = new AtomicReference<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long previousNodes = 0;
+        try {
+            while (threshold != Integer.MAX_VALUE) {
+                Result result = pool.invoke(new Task(layout, found, root.clone(), new int[0], threshold, -1, 0, 0));
+                metrics.reExpansions += Math.min(previousNodes, result.counts.expanded); // Earlier iterations are searched again
+                previousNodes = result.counts.expanded;
+                fold(metrics, result.counts);
+                if (found.get() != null || isStopped()) break;
+                threshold = result.nextThreshold; // Minimum over all subtrees
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] path = found.get();
+        if (path == null) checkStopped();
+        GameState state = path == null ? null : initialState;
+        if (path != null) for (int move : path) state = state.applyMove(move);
+        return state;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel IDA* (" + threads + " threads)";
+    }
+
+    // Add subtree counters; the deepest stack is the peak, as subtrees unwind.
+    private static void fold(SearchMetrics into, SearchMetrics from) {
+        long peak = Math.max(into.peakOpen, from.peakOpen);
+        into.add(from);
+        into.peakOpen = peak;
+    }
+
+    /**
+     * Counters and next threshold of a subtree.
+     */
+    private static final class Result {
+        final int nextThreshold;
+        final SearchMetrics counts;
+
+        Result(int nextThreshold, SearchMetrics counts) {
+            this.nextThreshold = nextThreshold;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Subtree rooted at a fixed move prefix.
+     * Forks children near the root, searches sequentially below.
+     */
+    private final class Task extends RecursiveTask<Result> {
+        private final Layout layout;
+        private final AtomicReference<int[]> found;
+        private final byte[] positions;
+        private final int[] prefix;
+        private final int threshold;
+        private final int lastPiece;
+        private final int lastFrom;
+        private final int parentH;
+
+        // Sequential search state.
+        private MoveGenerator generator;
+        private int[][] moveStack;
+        private int[] path;
+        private final SearchMetrics counts = new SearchMetrics();
+        private long unreported; // Expansions of this task not yet passed to expandedShared
+
+        Task(Layout layout, AtomicReference<int[]> found, byte[] positions, int[] prefix,
+             int threshold, int lastPiece, int lastFrom, int parentH) {
+            this.layout = layout;
+            this.found = found;
+            this.positions = positions;
+            this.prefix = prefix;
+            this.threshold = threshold;
+            this.lastPiece = lastPiece;
+            this.lastFrom = lastFrom;
+            this.parentH = parentH;
+        }
+
+        @Override
+        protected Result compute() {
+            Result result = prefix.length >= SPLIT_DEPTH ? searchSubtree() : split();
+            if (unreported > 0 && isWatched()) expandedShared(unreported);
+            return result;
+        }
+
+        // Expand a node above the split depth and fork its children.
+        private Result split() {
+            int g = prefix.length;
+            if (found.get() != null || isStopped()) return new Result(Integer.MAX_VALUE, counts);
+
+            counts.expanded++;
+            unreported++;
+            counts.open(g + 1);
+            int h = estimate(g, parentH, prefix);
+            if (h == Integer.MAX_VALUE) return new Result(Integer.MAX_VALUE, counts);
+            if (g + h > threshold) return new Result(g + h, counts);
+            if (layout.isWin(positions)) {
+                found.compareAndSet(null, prefix);
+                return new Result(g + h, counts);
+            }
+
+            MoveGenerator local = new MoveGenerator(layout);
+            int[] moves = new int[local.maxMoves()];
+            int moveCount = local.generate(positions, moves);
+            counts.generated += moveCount;
+            Task[] children = new Task[moveCount];
+            int childCount = 0;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                if (piece == lastPiece && to == lastFrom) {
+                    counts.duplicates++;
+                    continue; // Back to the parent
+                }
+
+                byte[] next = positions.clone();
+                next[piece] = (byte) to;
+                int[] nextPrefix = Arrays.copyOf(prefix, g + 1);
+                nextPrefix[g] = moves[i];
+                children[childCount++] = new Task(layout, found, next, nextPrefix, threshold, piece, from, h);
+            }
+
+            for (int i = 1; i < childCount; i++) children[i].fork();
+            int next = Integer.MAX_VALUE;
+            for (int i = 0; i < childCount; i++) {
+                Result result = i == 0 ? children[0].compute() : children[i].join();
+                fold(counts, result.counts);
+                next = Math.min(next, result.nextThreshold);
+            }
+            return new Result(next, counts);
+        }
+
+        // Heuristic of the current positions, incremental below the root.
+        private int estimate(int g, int parentH, int[] moves) {
+            if (g == 0) return counts.evaluate(heuristic, layout, positions);
+            return counts.evaluate(heuristic, parentH, layout, positions, moves[g - 1]);
+        }
+
+        // Depth-first search below the split depth, offsets updated in place.
+        private Result searchSubtree() {
+            generator = new MoveGenerator(layout);
+            moveStack = new int[threshold + 1][];
+            path = Arrays.copyOf(prefix, Math.max(threshold, prefix.length) + 1);
+            int next = search(prefix.length, lastPiece, lastFrom, parentH);
+            return new Result(next, counts);
+        }
+
+        private int search(int g, int previousPiece, int previousFrom, int parentH) {
+            if (found.get() != null || isStopped()) return Integer.MAX_VALUE; // Cancelled by another subtree or the budget
+            counts.expanded++;
+            if (++unreported > REPORT_MASK && isWatched()) {
+                expandedShared(unreported);
+                unreported = 0;
+            }
+
+            int h = estimate(g, parentH, path);
+            if (h == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+            int f = g + h;
+            if (f > threshold) return f;
+            if (layout.isWin(positions)) {
+                found.compareAndSet(null, Arrays.copyOf(path, g));
+                return f;
+            }
+
+            if (moveStack[g] == null) moveStack[g] = new int[generator.maxMoves()];
+            int[] moves = moveStack[g];
+            int moveCount = generator.generate(positions, moves);
+            counts.generated += moveCount;
+            counts.open(g + 1);
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                if (piece == previousPiece && to == previousFrom) {
+                    counts.duplicates++;
+                    continue; // Back to the parent
+                }
+
+                positions[piece] = (byte) to;
+                path[g] = moves[i];
+                int result = search(g + 1, piece, from, h);
+                positions[piece] = (byte) from;
+
+                if (found.get() != null || isStopped()) return Integer.MAX_VALUE;
+                if (result < min) min = result;
+            }
+            return min;
+        }
+    }
+}
\ No newline at end of file
@@ -5,40 +5,188 @@ import heuristic.Heuristic;
 
 /**
  * Abstract base for pathfinders.
+ * Times each search, counts expansions and stops it when the budget or cancellation token says so.
  */
 public abstract class PathFinder {
+    private static final int CHECK_INTERVAL = 1 << 10;
+
     protected final Heuristic heuristic;
-    protected int nodesVisited;
-    protected long executionTimeMillis;
-    
+    protected final SearchMetrics metrics = new SearchMetrics();
+    private SearchListener listener;
+    private long reportInterval;
+    private SearchBudget budget = SearchBudget.UNLIMITED;
+    private CancellationToken token;
+    private SearchOutcome outcome;
+    private volatile SearchOutcome stop; // Raised by a worker thread
+    private long nextReport = Long.MAX_VALUE;
+    private long nextCheck = Long.MAX_VALUE;
+    private long nextEvent = Long.MAX_VALUE;
+    private long sharedExpanded;
+    private long started;
+
     public PathFinder(Heuristic heuristic) {
         this.heuristic = heuristic;
     }
-    
-    // Find path to solution.
-    public abstract GameState findPath(GameState initialState);
-    
+
+    // Find path to solution; null if there is none or the search was stopped, see getOutcome().
+    public final GameState findPath(GameState initialState) {
+        start();
+        GameState solution = null;
+        try {
+            solution = search(initialState);
+            outcome = solution != null ? SearchOutcome.SOLVED : SearchOutcome.UNSOLVABLE;
+        } catch (Stopped e) {
+            outcome = e.outcome;
+        }
+        metrics.nanos = System.nanoTime() - started;
+        return solution;
+    }
+
+    // Run the search itself; findPath handles timing and budgets.
+    protected abstract GameState search(GameState initialState);
+
     // Get algorithm name.
     public abstract String getName();
-    
+
     // Get nodes visited.
     public int getNodesVisited() {
-        return nodesVisited;
+        return (int) Math.min(metrics.expanded, Integer.MAX_VALUE);
     }
-    
+
     // Get execution time (ms).
     public long getExecutionTime() {
-        return executionTimeMillis;
-    }
-    
-    // Start timing search.
-    protected void startTimer() {
-        this.nodesVisited = 0;
-        this.executionTimeMillis = System.currentTimeMillis();
-    }
-    
-    // Stop timing search.
-    protected void stopTimer() {
-        this.executionTimeMillis = System.currentTimeMillis() - this.executionTimeMillis;
+        return metrics.nanos / 1_000_000;
+    }
+
+    // Counters of the last search, partial if it was stopped.
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    // How the last search ended.
+    public SearchOutcome getOutcome() {
+        return outcome;
+    }
+
+    // Call a listener every interval expansions, or none if null.
+    public void setListener(SearchListener listener, int interval) {
+        if (listener != null && interval < 1) throw new IllegalArgumentException("Interval must be positive: " + interval);
+        this.listener = listener;
+        this.reportInterval = interval;
+    }
+
+    // Limits of later searches.
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget == null ? SearchBudget.UNLIMITED : budget;
+    }
+
+    // Token that stops later searches, or null for none.
+    public void setCancellationToken(CancellationToken token) {
+        this.token = token;
+    }
+
+    // Reset counters and schedule the first report and budget check.
+    private void start() {
+        metrics.reset();
+        outcome = null;
+        stop = null;
+        sharedExpanded = 0;
+        nextReport = listener == null ? Long.MAX_VALUE : reportInterval;
+        nextCheck = token != null || budget.needsPolling() ? CHECK_INTERVAL : Long.MAX_VALUE;
+        if (budget.getMaxExpansions() > 0) nextCheck = Math.min(nextCheck, budget.getMaxExpansions() + 1);
+        nextEvent = Math.min(nextReport, nextCheck);
+        started = System.nanoTime();
+    }
+
+    // Count one expansion of a sequential search.
+    protected final void expanded() {
+        if (++metrics.expanded >= nextEvent) onEvent();
+    }
+
+    // Count several expansions at once on the searching thread.
+    protected final void expanded(long count) {
+        metrics.expanded += count;
+        if (metrics.expanded >= nextEvent) onEvent();
+    }
+
+    private void onEvent() {
+        SearchOutcome exceeded = event(metrics.expanded, metrics);
+        if (exceeded != null) abandon(exceeded);
+    }
+
+    // Count a batch of expansions from a worker thread; false once the search must stop.
+    protected final synchronized boolean expandedShared(long count) {
+        sharedExpanded += count;
+        if (stop == null && sharedExpanded >= nextEvent) {
+            SearchMetrics progress = new SearchMetrics();
+            progress.expanded = sharedExpanded;
+            stop = event(sharedExpanded, progress);
+        }
+        return stop == null;
+    }
+
+    // Whether workers need to call expandedShared at all.
+    protected final boolean isWatched() {
+        return nextEvent != Long.MAX_VALUE;
+    }
+
+    // Whether a worker stopped the search.
+    protected final boolean isStopped() {
+        return stop != null;
+    }
+
+    // End the search on the calling thread if a worker stopped it.
+    protected final void checkStopped() {
+        SearchOutcome stopped = stop;
+        if (stopped != null) abandon(stopped);
+    }
+
+    // End the search on the calling thread with a stopped outcome.
+    protected final void abandon(SearchOutcome outcome) {
+        throw new Stopped(outcome);
+    }
+
+    // Report progress and check the budget; the outcome to stop with, or null.
+    private SearchOutcome event(long expanded, SearchMetrics live) {
+        if (expanded >= nextReport) {
+            nextReport = expanded - expanded % reportInterval + reportInterval;
+            live.nanos = System.nanoTime() - started;
+            listener.onProgress(live);
+        }
+        SearchOutcome exceeded = null;
+        if (expanded >= nextCheck) {
+            exceeded = checkBudget(expanded);
+            long limit = budget.getMaxExpansions() > 0 ? budget.getMaxExpansions() + 1 : Long.MAX_VALUE;
+            nextCheck = token != null || budget.needsPolling()
+                    ? Math.min(expanded - expanded % CHECK_INTERVAL + CHECK_INTERVAL, limit)
+                    : limit;
+        }
+        nextEvent = Math.min(nextReport, nextCheck);
+        return exceeded;
+    }
+
+    private SearchOutcome checkBudget(long expanded) {
+        if (token != null && token.isCancelled()) return SearchOutcome.CANCELLED;
+        if (budget.getMaxExpansions() > 0 && expanded > budget.getMaxExpansions()) return SearchOutcome.NODE_LIMIT;
+        long elapsed = System.nanoTime() - started;
+        if (budget.getTimeLimitMillis() > 0 && elapsed >= budget.getTimeLimitMillis() * 1_000_000) return SearchOutcome.TIME_LIMIT;
+        if (budget.getMaxMemoryBytes() > 0) {
+            Runtime runtime = Runtime.getRuntime();
+            if (runtime.totalMemory() - runtime.freeMemory() > budget.getMaxMemoryBytes()) return SearchOutcome.MEMORY_LIMIT;
+        }
+        return null;
+    }
+
+    /**
+     * Unwinds a search that ran out of budget.
+     * Carries no stack trace, as it is control flow.
+     */
+    private static final class Stopped extends RuntimeException {
+        final SearchOutcome outcome;
+
+        Stopped(SearchOutcome outcome) {
+            super(outcome.toString(), null, false, false);
+            this.outcome = outcome;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Retrograde Analysis.
+ * Solves the start's whole component backwards once, then follows stored distances.
+ */
+public class RA extends PathFinder {
+    private final int threads;
+    private final Path directory;
+    private RetrogradeTable table;
+
+    public RA() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RA(int threads) {
+        this(threads, defaultDirectory());
+    }
+
+    public RA(int threads, Path directory) {
+        super(null);
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        this.threads = threads;
+        this.directory = directory;
+    }
+
+    public int getThreads() { return threads; }
+
+    // Table of the last search, for further lookups.
+    public RetrogradeTable getTable() { return table; }
+
+    @Override
+    protected GameState search(GameState initialState) {
+        table = tableFor(initialState.getLayout(), initialState.getPositions());
+        metrics.expanded = metrics.closed = table.size();
+
+        GameState state = initialState;
+        while (!state.isWin()) {
+            int move = table.bestMove(state.getPositions());
+            if (move == GameState.NO_MOVE) {
+                state = null; // Unsolvable component
+                break;
+            }
+            state = state.applyMove(move);
+        }
+        return state;
+    }
+
+    // Mapped table of the layout, rebuilt when it covers another component.
+    private RetrogradeTable tableFor(Layout layout, byte[] start) {
+        if (table != null && table.getLayout() == layout
+                && table.distance(start) != RetrogradeTable.NOT_IN_TABLE) return table;
+        Path file = directory.resolve(String.format("%016x.ra", layout.signature()));
+        RetrogradeTable loaded = RetrogradeTable.load(file, layout);
+        if (loaded != null && loaded.distance(start) != RetrogradeTable.NOT_IN_TABLE) return loaded;
+
+        RetrogradeTable built = RetrogradeTable.build(layout, start, threads, count -> expanded(count)); // Budget checks between levels
+        try {
+            built.save(file);
+            RetrogradeTable mapped = RetrogradeTable.load(file, layout);
+            if (mapped != null) return mapped;
+        } catch (IOException e) {
+            System.err.println("Retrograde table not saved: " + e.getMessage());
+        }
+        return built;
+    }
+
+    private static Path defaultDirectory() {
+        String configured = System.getProperty("ra.dir");
+        if (configured != null) return Paths.get(configured);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "rushhour-ra");
+    }
+
+    @Override
+    public String getName() {
+        return "Retrograde Analysis (" + threads + " threads)";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,331 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.LongIntHashMap;
+import core.Move;
+import core.MoveGenerator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Distance-to-goal table of one connected component.
+ * Open-addressed by state hash; slots hold the key and the optimal distance.
+ */
+public final class RetrogradeTable {
+    public static final int NOT_IN_TABLE = -1;
+    private static final int MAGIC = 0x52485241; // "RHRA"
+    private static final int VERSION = 2;
+    private static final int HEADER = 32;
+    private static final int SLOT_BYTES = 10; // Long key plus char distance
+    private static final int UNSOLVABLE = 0xFFFF;
+    private static final int MAX_DISTANCE = 0xFFFE;
+
+    private final Layout layout;
+    private final ByteBuffer data;
+    private final int capacity;
+    private final int mask;
+    private final int size;
+
+    private RetrogradeTable(Layout layout, ByteBuffer data) {
+        this.layout = layout;
+        this.data = data;
+        this.capacity = data.getInt(20);
+        this.mask = capacity - 1;
+        this.size = data.getInt(24);
+    }
+
+    // Enumerate the component of start and solve it backwards.
+    public static RetrogradeTable build(Layout layout, byte[] start, int threads) {
+        return build(layout, start, threads, _ -> { });
+    }
+
+    // Build, passing the states expanded by each level to progress; it may throw to abandon the build.
+    public static RetrogradeTable build(Layout layout, byte[] start, int threads, IntConsumer progress) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            NodeArena states = new NodeArena(layout);
+            LongIntHashMap index = new LongIntHashMap(1 << 16, true); // Hash -> arena node
+            enumerate(pool, threads, layout, states, index, start, progress);
+            char[] distances = solve(pool, threads, layout, states, index, progress);
+            return new RetrogradeTable(layout, ByteBuffer.wrap(pack(layout, states, distances)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Map a saved table, or null if missing or built for another layout.
+    public static RetrogradeTable load(Path file, Layout layout) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(8) != layout.signature()) return null;
+            int capacity = buffer.getInt(20);
+            if (channel.size() != HEADER + (long) capacity * SLOT_BYTES) return null;
+            return new RetrogradeTable(layout, buffer);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Write the table to a file.
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "ra", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer copy = data.duplicate();
+            copy.clear();
+            while (copy.hasRemaining()) channel.write(copy);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Layout getLayout() { return layout; }
+
+    // States in the component.
+    public int size() { return size; }
+
+    // Optimal moves to the goal, Integer.MAX_VALUE if unsolvable, NOT_IN_TABLE if outside the component.
+    public int distance(long hash) {
+        long key = keyOf(hash);
+        int slot = slot(key);
+        while (true) {
+            long k = data.getLong(HEADER + slot * 8);
+            if (k == 0L) return NOT_IN_TABLE;
+            if (k == key) {
+                int d = data.getChar(HEADER + capacity * 8 + slot * 2);
+                return d == UNSOLVABLE ? Integer.MAX_VALUE : d;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int distance(byte[] positions) {
+        return distance(layout.hash(positions));
+    }
+
+    // A packed move one step closer to the goal, or GameState.NO_MOVE.
+    public int bestMove(byte[] positions) {
+        long hash = layout.hash(positions);
+        int d = distance(hash);
+        if (d <= 0 || d == Integer.MAX_VALUE) return GameState.NO_MOVE;
+        MoveGenerator generator = new MoveGenerator(layout);
+        int[] moves = new int[generator.maxMoves()];
+        int count = generator.generate(positions, moves);
+        for (int i = 0; i < count; i++) {
+            int piece = Move.pieceOf(moves[i]);
+            int from = positions[piece];
+            long next = hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, from + Move.deltaOf(moves[i]));
+            int nd = distance(next);
+            if (nd != NOT_IN_TABLE && nd < d) return moves[i];
+        }
+        return GameState.NO_MOVE;
+    }
+
+    // Level-synchronous forward search; workers expand slices of a level in parallel.
+    private static void enumerate(ForkJoinPool pool, int threads, Layout layout, NodeArena states,
+                                  LongIntHashMap index, byte[] start, IntConsumer progress) {
+        long rootHash = layout.hash(start);
+        index.put(rootHash, states.addNode(start, 0, rootHash, NodeArena.NO_PARENT, 0, 0));
+        int width = layout.getPieceCount();
+        int levelStart = 0;
+        while (levelStart < states.size()) {
+            int levelEnd = states.size();
+            List<Found> found = runSlices(pool, threads, levelStart, levelEnd, (from, to) -> {
+                Found out = new Found(width);
+                MoveGenerator generator = new MoveGenerator(layout);
+                int[] moves = new int[generator.maxMoves()];
+                byte[] positions = new byte[width];
+                for (int node = from; node < to; node++) {
+                    states.copyPositions(node, positions);
+                    long hash = states.hash(node);
+                    int count = generator.generate(positions, moves);
+                    for (int i = 0; i < count; i++) {
+                        int piece = Move.pieceOf(moves[i]);
+                        int was = positions[piece];
+                        int now = was + Move.deltaOf(moves[i]);
+                        long next = hash ^ layout.zobrist(piece, was) ^ layout.zobrist(piece, now);
+                        if (index.contains(next)) continue;
+                        positions[piece] = (byte) now;
+                        out.add(positions, next);
+                        positions[piece] = (byte) was;
+                    }
+                }
+                return out;
+            });
+            for (Found batch : found) {
+                for (int i = 0; i < batch.size; i++) {
+                    long hash = batch.hashes[i];
+                    if (index.contains(hash)) continue;
+                    index.put(hash, states.addNode(batch.positions, i * width, hash, NodeArena.NO_PARENT, 0, 0));
+                }
+            }
+            progress.accept(levelEnd - levelStart);
+            levelStart = levelEnd;
+        }
+    }
+
+    // Backward breadth-first search from every winning state of the component.
+    private static char[] solve(ForkJoinPool pool, int threads, Layout layout, NodeArena states, LongIntHashMap index,
+                                IntConsumer progress) {
+        char[] distances = new char[states.size()];
+        Arrays.fill(distances, (char) UNSOLVABLE);
+        int[] frontier = new int[16];
+        int frontierSize = 0;
+        for (int node = 0; node < states.size(); node++) {
+            if (!states.isWin(node)) continue;
+            distances[node] = 0;
+            if (frontierSize == frontier.length) frontier = Arrays.copyOf(frontier, frontierSize * 2);
+            frontier[frontierSize++] = node;
+        }
+
+        int width = layout.getPieceCount();
+        for (int depth = 1; frontierSize > 0; depth++) {
+            int[] level = frontier;
+            List<Found> found = runSlices(pool, threads, 0, frontierSize, (from, to) -> {
+                Found out = new Found(0);
+                MoveGenerator generator = new MoveGenerator(layout);
+                int[] moves = new int[generator.maxPredecessors()];
+                byte[] positions = new byte[width];
+                for (int i = from; i < to; i++) {
+                    int node = level[i];
+                    states.copyPositions(node, positions);
+                    long hash = states.hash(node);
+                    int count = generator.generatePredecessors(positions, moves);
+                    for (int m = 0; m < count; m++) {
+                        int piece = Move.pieceOf(moves[m]);
+                        int was = positions[piece];
+                        long previous = hash ^ layout.zobrist(piece, was) ^ layout.zobrist(piece, was + Move.deltaOf(moves[m]));
+                        int predecessor = index.get(previous);
+                        if (predecessor != LongIntHashMap.MISSING && distances[predecessor] == UNSOLVABLE) {
+                            out.add(null, predecessor);
+                        }
+                    }
+                }
+                return out;
+            });
+            int[] next = new int[16];
+            int nextSize = 0;
+            if (depth > MAX_DISTANCE) {
+                throw new IllegalStateException("Component deeper than " + MAX_DISTANCE + " moves.");
+            }
+            char d = (char) depth;
+            for (Found batch : found) {
+                for (int i = 0; i < batch.size; i++) {
+                    int node = (int) batch.hashes[i];
+                    if (distances[node] != UNSOLVABLE) continue;
+                    distances[node] = d;
+                    if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+                    next[nextSize++] = node;
+                }
+            }
+            progress.accept(frontierSize);
+            frontier = next;
+            frontierSize = nextSize;
+        }
+        return distances;
+    }
+
+    // Lay out header, key slots and distance slots.
+    private static byte[] pack(Layout layout, NodeArena states, char[] distances) {
+        int n = states.size();
+        long wanted = Math.max(16L, Long.highestOneBit(n * 2L - 1) << 1);
+        if (HEADER + wanted * SLOT_BYTES > Integer.MAX_VALUE) throw new IllegalStateException("Component too large: " + n + " states.");
+        int capacity = (int) wanted;
+        int mask = capacity - 1;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + capacity * SLOT_BYTES);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, layout.signature())
+                .putInt(16, layout.getPieceCount()).putInt(20, capacity).putInt(24, n);
+        for (int node = 0; node < n; node++) {
+            long key = keyOf(states.hash(node));
+            int slot = slot(key, mask);
+            while (buffer.getLong(HEADER + slot * 8) != 0L) slot = (slot + 1) & mask;
+            buffer.putLong(HEADER + slot * 8, key);
+            buffer.putChar(HEADER + capacity * 8 + slot * 2, distances[node]);
+        }
+        return buffer.array();
+    }
+
+    // Run a function over equal slices of [from, to) on the pool.
+    private static List<Found> runSlices(ForkJoinPool pool, int threads, int from, int to, Slice slice) {
+        int total = to - from;
+        int parts = Math.max(1, Math.min(threads * 4, total / 256));
+        List<Callable<Found>> tasks = new ArrayList<>();
+        for (int p = 0; p < parts; p++) {
+            int lo = from + (int) ((long) total * p / parts);
+            int hi = from + (int) ((long) total * (p + 1) / parts);
+            tasks.add(() -> slice.run(lo, hi));
+        }
+        List<Found> results = new ArrayList<>();
+        try {
+            for (Future<Found> future : pool.invokeAll(tasks)) results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retrograde analysis interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Retrograde analysis failed.", e.getCause());
+        }
+        return results;
+    }
+
+    // Hash 0 marks an empty slot.
+    private static long keyOf(long hash) {
+        return hash == 0L ? 1L : hash;
+    }
+
+    private int slot(long key) {
+        return slot(key, mask);
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    private interface Slice {
+        Found run(int from, int to);
+    }
+
+    /**
+     * Growable list of hashes and optional positions from one slice.
+     */
+    private static final class Found {
+        final int width;
+        long[] hashes = new long[256];
+        byte[] positions;
+        int size;
+
+        Found(int width) {
+            this.width = width;
+            this.positions = new byte[256 * width];
+        }
+
+        void add(byte[] source, long hash) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                positions = Arrays.copyOf(positions, size * 2 * width);
+            }
+            hashes[size] = hash;
+            if (width > 0) System.arraycopy(source, 0, positions, size * width, width);
+            size++;
+        }
+    }
+}
\ No newline at end of file
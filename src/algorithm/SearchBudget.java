@@ -0,0 +1,31 @@
+package algorithm;
+
+/**
+ * Limits of one search: wall-clock time, expansions and heap in use.
+ * Zero means no limit. The heap limit applies to the whole JVM, as searches share it.
+ */
+public final class SearchBudget {
+    public static final SearchBudget UNLIMITED = new SearchBudget(0, 0, 0);
+
+    private final long timeLimitMillis;
+    private final long maxExpansions;
+    private final long maxMemoryBytes;
+
+    public SearchBudget(long timeLimitMillis, long maxExpansions, long maxMemoryBytes) {
+        if (timeLimitMillis < 0 || maxExpansions < 0 || maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Budget limits must not be negative.");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxExpansions = maxExpansions;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+    public long getMaxExpansions() { return maxExpansions; }
+    public long getMaxMemoryBytes() { return maxMemoryBytes; }
+
+    // Whether a time or heap limit needs polling.
+    boolean needsPolling() {
+        return timeLimitMillis > 0 || maxMemoryBytes > 0;
+    }
+}
\ No newline at end of file
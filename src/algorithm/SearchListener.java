@@ -0,0 +1,11 @@
+package algorithm;
+
+/**
+ * Progress callback of a running search.
+ * Called every N expansions; parallel solvers call it from a worker thread, one call at a time.
+ */
+@FunctionalInterface
+public interface SearchListener {
+    // Live counters; copy with snapshot() to keep them.
+    void onProgress(SearchMetrics metrics);
+}
\ No newline at end of file
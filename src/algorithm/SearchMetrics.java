@@ -0,0 +1,95 @@
+package algorithm;
+
+import core.Layout;
+import heuristic.Heuristic;
+
+/**
+ * Counters of one search.
+ * Heuristic time is sampled on one call in 64 and scaled, to keep the clock off the hot path.
+ */
+public final class SearchMetrics {
+    private static final int SAMPLE_SHIFT = 6;
+    private static final long SAMPLE_MASK = (1L << SAMPLE_SHIFT) - 1;
+
+    long nanos;
+    long expanded;
+    long generated;
+    long duplicates;
+    long peakOpen;
+    long closed;
+    long evaluations;
+    long evaluationNanos;
+    long reExpansions;
+
+    // Heuristic of a root state, counted and sampled.
+    int evaluate(Heuristic heuristic, Layout layout, byte[] positions) {
+        if ((evaluations++ & SAMPLE_MASK) != 0) return heuristic.evaluate(layout, positions);
+        long start = System.nanoTime();
+        int h = heuristic.evaluate(layout, positions);
+        evaluationNanos += (System.nanoTime() - start) << SAMPLE_SHIFT;
+        return h;
+    }
+
+    // Incremental heuristic of a child state, counted and sampled.
+    int evaluate(Heuristic heuristic, int parentH, Layout layout, byte[] positions, int move) {
+        if ((evaluations++ & SAMPLE_MASK) != 0) return heuristic.evaluate(parentH, layout, positions, move);
+        long start = System.nanoTime();
+        int h = heuristic.evaluate(parentH, layout, positions, move);
+        evaluationNanos += (System.nanoTime() - start) << SAMPLE_SHIFT;
+        return h;
+    }
+
+    // Record an open list size.
+    void open(long size) {
+        if (size > peakOpen) peakOpen = size;
+    }
+
+    // Fold in the counters of a worker; peaks add up as an upper bound.
+    void add(SearchMetrics other) {
+        expanded += other.expanded;
+        generated += other.generated;
+        duplicates += other.duplicates;
+        peakOpen += other.peakOpen;
+        closed += other.closed;
+        evaluations += other.evaluations;
+        evaluationNanos += other.evaluationNanos;
+        reExpansions += other.reExpansions;
+    }
+
+    // Replace the counters with another search's.
+    void set(SearchMetrics other) {
+        reset();
+        add(other);
+        nanos = other.nanos;
+    }
+
+    void reset() {
+        nanos = expanded = generated = duplicates = peakOpen = closed = 0;
+        evaluations = evaluationNanos = reExpansions = 0;
+    }
+
+    // Copy of the current counters.
+    public SearchMetrics snapshot() {
+        SearchMetrics copy = new SearchMetrics();
+        copy.set(this);
+        return copy;
+    }
+
+    public long getNanos() { return nanos; }
+    public long getExpanded() { return expanded; }
+    public long getGenerated() { return generated; }
+    public long getDuplicates() { return duplicates; }
+    public long getPeakOpen() { return peakOpen; }
+    public long getClosed() { return closed; }
+    public long getEvaluations() { return evaluations; }
+    public long getEvaluationNanos() { return evaluationNanos; }
+    public long getReExpansions() { return reExpansions; }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f ms, %d expanded, %d generated, %d duplicates, %d peak open, %d closed, "
+                        + "%d evaluations (~%.3f ms), %d re-expansions",
+                nanos / 1e6, expanded, generated, duplicates, peakOpen, closed,
+                evaluations, evaluationNanos / 1e6, reExpansions);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package algorithm;
+
+/**
+ * How a search ended.
+ * The stopped outcomes return no path; the metrics cover the work done until the stop.
+ */
+public enum SearchOutcome {
+    SOLVED("solved"),
+    UNSOLVABLE("unsolvable"),
+    CANCELLED("cancelled"),
+    TIME_LIMIT("time limit"),
+    NODE_LIMIT("node limit"),
+    MEMORY_LIMIT("memory limit");
+
+    private final String label;
+
+    SearchOutcome(String label) {
+        this.label = label;
+    }
+
+    // Whether the search was stopped before it could finish.
+    public boolean isStopped() {
+        return this != SOLVED && this != UNSOLVABLE;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
\ No newline at end of file
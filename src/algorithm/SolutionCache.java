@@ -0,0 +1,198 @@
+package algorithm;
+
+import core.GameState;
+import core.Layout;
+import core.MoveGenerator;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Memory-mapped store of solved move lists across runs.
+ * Four-way sets keyed by puzzle, algorithm and heuristic; least recently used slot is evicted.
+ */
+public final class SolutionCache {
+    public static final int DEFAULT_MEGABYTES = 4;
+    public static final int MAX_MOVES = 115;
+    private static final int MAGIC = 0x52485343; // "RHSC"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int SLOT = 256;
+    private static final int WAYS = 4;
+    private static final int NO_SOLUTION = 0xFFFF;
+    private static final long FIRST_SEED = 0xCBF29CE484222325L;
+    private static final long SECOND_SEED = 0x84222325CBF29CE4L;
+    private static SolutionCache shared;
+    private static boolean sharedOpened;
+
+    private final MappedByteBuffer data;
+    private final int setMask;
+    private long hits;
+    private long misses;
+
+    private SolutionCache(MappedByteBuffer data, int sets) {
+        this.data = data;
+        this.setMask = sets - 1;
+    }
+
+    // Map a cache file of about the given size, resetting it if the format differs.
+    public static SolutionCache open(Path file, int megabytes) throws IOException {
+        if (megabytes < 1) throw new IllegalArgumentException("Cache size must be positive: " + megabytes);
+        int sets = Integer.highestOneBit((int) Math.min(((long) megabytes << 20) / (SLOT * WAYS), 1 << 20));
+        long length = HEADER + (long) sets * WAYS * SLOT;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = channel.size() != length;
+            if (fresh) channel.truncate(0);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (fresh || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != sets) {
+                for (int i = 0; i < length; i += 8) buffer.putLong(i, 0L);
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, sets);
+            }
+            return new SolutionCache(buffer, sets);
+        }
+    }
+
+    // Process-wide cache in the default location, or null when disabled or unavailable.
+    public static synchronized SolutionCache shared() {
+        if (sharedOpened) return shared;
+        sharedOpened = true;
+        int megabytes = Integer.getInteger("solution.cache.mb", DEFAULT_MEGABYTES);
+        if (megabytes <= 0) return null;
+        String configured = System.getProperty("solution.cache.dir");
+        Path directory = configured != null ? Paths.get(configured)
+                : Paths.get(System.getProperty("java.io.tmpdir"), "rushhour-cache");
+        try {
+            shared = open(directory.resolve("solutions.bin"), megabytes);
+        } catch (IOException e) {
+            System.err.println("Solution cache unavailable: " + e.getMessage());
+        }
+        return shared;
+    }
+
+    // Stored result replayed from the initial state, or null on a miss.
+    public synchronized Hit lookup(GameState initial, String algorithm, String heuristic) {
+        int slot = find(key(initial, algorithm, heuristic, FIRST_SEED), key(initial, algorithm, heuristic, SECOND_SEED));
+        if (slot == -1) {
+            misses++;
+            return null;
+        }
+        int count = data.getShort(slot + 24) & 0xFFFF;
+        GameState state = count == NO_SOLUTION ? null : replay(initial, slot, count);
+        if (count != NO_SOLUTION && (state == null || !state.isWin())) { // Hash collision or a damaged slot
+            data.putLong(slot, 0L);
+            misses++;
+            return null;
+        }
+        touch(slot);
+        hits++;
+        return new Hit(state, data.getInt(slot + 20));
+    }
+
+    // Record a result; solutions longer than MAX_MOVES are skipped.
+    public synchronized void store(GameState initial, String algorithm, String heuristic, GameState solution, int nodes) {
+        List<GameState> path = solution == null ? null : solution.getSolutionPath();
+        int count = path == null ? NO_SOLUTION : path.size() - 1;
+        if (path != null && count > MAX_MOVES) return;
+        long key = key(initial, algorithm, heuristic, FIRST_SEED);
+        long check = key(initial, algorithm, heuristic, SECOND_SEED);
+
+        int slot = find(key, check);
+        if (slot == -1) slot = victim(key);
+        data.putLong(slot, key).putLong(slot + 8, check).putInt(slot + 20, nodes).putShort(slot + 24, (short) count);
+        for (int i = 0; path != null && i < count; i++) data.putChar(slot + 26 + i * 2, (char) path.get(i + 1).getMove());
+        touch(slot);
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    // Drop every entry.
+    public synchronized void clear() {
+        for (int i = HEADER; i < data.capacity(); i += SLOT) data.putLong(i, 0L);
+    }
+
+    // Stored moves applied to the initial state, or null if one is not a legal move.
+    private GameState replay(GameState initial, int slot, int count) {
+        if (count > MAX_MOVES) return null;
+        MoveGenerator generator = new MoveGenerator(initial.getLayout());
+        int[] legal = new int[generator.maxMoves()];
+        GameState state = initial;
+        for (int i = 0; i < count; i++) {
+            int move = data.getChar(slot + 26 + i * 2);
+            int legalCount = generator.generate(state.getPositions(), legal);
+            boolean found = false;
+            for (int j = 0; j < legalCount && !found; j++) found = legal[j] == move;
+            if (!found) return null; // Checked first, as applyMove trusts its move
+            state = state.applyMove(move);
+        }
+        return state;
+    }
+
+    // Byte offset of a matching slot, or -1.
+    private int find(long key, long check) {
+        int base = setOf(key);
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * SLOT;
+            if (data.getLong(slot) == key && data.getLong(slot + 8) == check) return slot;
+        }
+        return -1;
+    }
+
+    // An empty slot of the set, else the one used longest ago.
+    private int victim(long key) {
+        int base = setOf(key);
+        int oldest = base;
+        for (int way = 0; way < WAYS; way++) {
+            int slot = base + way * SLOT;
+            if (data.getLong(slot) == 0L) return slot;
+            if (Integer.compareUnsigned(data.getInt(slot + 16), data.getInt(oldest + 16)) < 0) oldest = slot;
+        }
+        return oldest;
+    }
+
+    private void touch(int slot) {
+        int clock = data.getInt(12) + 1;
+        data.putInt(12, clock);
+        data.putInt(slot + 16, clock);
+    }
+
+    private int setOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return HEADER + ((int) (h >>> 40) & setMask) * WAYS * SLOT;
+    }
+
+    // Puzzle geometry and positions, algorithm and heuristic under one seed.
+    private static long key(GameState initial, String algorithm, String heuristic, long seed) {
+        Layout layout = initial.getLayout();
+        long h = seed;
+        h = (h ^ layout.signature()) * 0x100000001B3L;
+        h = (h ^ layout.hash(initial.getPositions())) * 0x100000001B3L;
+        for (char c : algorithm.toCharArray()) h = (h ^ c) * 0x100000001B3L;
+        h = (h ^ '|') * 0x100000001B3L;
+        if (heuristic != null) for (char c : heuristic.toCharArray()) h = (h ^ c) * 0x100000001B3L;
+        return h == 0L ? 1L : h;
+    }
+
+    /**
+     * Cached result: the replayed solution, null if unsolvable, and the original node count.
+     */
+    public static final class Hit {
+        private final GameState solution;
+        private final int nodes;
+
+        Hit(GameState solution, int nodes) {
+            this.solution = solution;
+            this.nodes = nodes;
+        }
+
+        public GameState getSolution() { return solution; }
+        public int getNodes() { return nodes; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package algorithm;
+
+import heuristic.BG;
+import heuristic.BP;
+import heuristic.DB;
+import heuristic.Heuristic;
+import heuristic.MD;
+import heuristic.PDB;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pathfinder and heuristic factory keyed by short names.
+ * Names match the class names: ucs, gbfs, as, idas, bbfs, hdas, pidas, ra; md, bp, db, pdb, bg.
+ * An algorithm name may carry options, as in idas:tt=64 for a 64 MB transposition table.
+ */
+public final class Solvers {
+    public static final List<String> ALGORITHMS = List.of("ucs", "gbfs", "as", "idas", "bbfs", "hdas", "pidas", "ra");
+    public static final List<String> HEURISTICS = List.of("md", "bp", "db", "pdb", "bg");
+
+    private Solvers() {}
+
+    // Whether an algorithm takes a heuristic.
+    public static boolean usesHeuristic(String algorithm) {
+        return switch (baseName(algorithm)) {
+            case "gbfs", "as", "idas", "hdas", "pidas" -> true;
+            default -> false;
+        };
+    }
+
+    // Whether an algorithm searches on worker threads.
+    public static boolean isParallel(String algorithm) {
+        return switch (baseName(algorithm)) {
+            case "hdas", "pidas", "ra" -> true;
+            default -> false;
+        };
+    }
+
+    // New heuristic by short name.
+    public static Heuristic heuristic(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "md" -> new MD();
+            case "bp" -> new BP();
+            case "db" -> new DB();
+            case "pdb" -> new PDB();
+            case "bg" -> new BG();
+            default -> throw new IllegalArgumentException("Unknown heuristic: " + name);
+        };
+    }
+
+    // New pathfinder by short name and options; threads applies to the parallel ones.
+    public static PathFinder create(String algorithm, Heuristic heuristic, int threads) {
+        String[] parts = algorithm.toLowerCase(Locale.ROOT).split(":");
+        int tableMegabytes = 0;
+        for (int i = 1; i < parts.length; i++) {
+            if (!parts[0].equals("idas") || !parts[i].startsWith("tt=")) {
+                throw new IllegalArgumentException("Unknown option for " + parts[0] + ": " + parts[i]);
+            }
+            tableMegabytes = Integer.parseInt(parts[i].substring(3));
+        }
+        return switch (parts[0]) {
+            case "ucs" -> new UCS();
+            case "gbfs" -> new GBFS(heuristic);
+            case "as" -> new AS(heuristic);
+            case "idas" -> new IDAS(heuristic, tableMegabytes);
+            case "bbfs" -> new BBFS();
+            case "hdas" -> new HDAS(heuristic, threads);
+            case "pidas" -> new PIDAS(heuristic, threads);
+            case "ra" -> new RA(threads);
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+    }
+
+    // Algorithm name without options.
+    private static String baseName(String algorithm) {
+        int colon = algorithm.indexOf(':');
+        return (colon == -1 ? algorithm : algorithm.substring(0, colon)).toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
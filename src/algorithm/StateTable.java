@@ -0,0 +1,98 @@
+package algorithm;
+
+/**
+ * Open-addressing table of arena nodes keyed by Zobrist hash.
+ * Positions are compared on a hash hit, so colliding states keep separate entries.
+ */
+final class StateTable {
+    static final int MISSING = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final NodeArena arena;
+    private long[] keys;
+    private int[] nodes; // Node + 1, 0 marks an empty slot
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    StateTable(NodeArena arena, int expectedSize) {
+        this.arena = arena;
+        long needed = (long) Math.max(expectedSize, MIN_CAPACITY) * 4 / 3 + 1;
+        if (needed > (1 << 30)) throw new IllegalArgumentException("Table too large: " + expectedSize);
+        allocate(Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    // Node holding these positions, or MISSING.
+    int find(long hash, byte[] positions) {
+        for (int slot = slot(hash); nodes[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash && arena.matches(nodes[slot] - 1, positions)) return nodes[slot] - 1;
+        }
+        return MISSING;
+    }
+
+    // Node holding the same state as node, or MISSING.
+    int find(int node) {
+        long hash = arena.hash(node);
+        for (int slot = slot(hash); nodes[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash && arena.sameState(nodes[slot] - 1, node)) return nodes[slot] - 1;
+        }
+        return MISSING;
+    }
+
+    // Insert node unless its state is present; the node already there, or MISSING if inserted.
+    int putIfAbsent(int node) {
+        long hash = arena.hash(node);
+        int slot = slot(hash);
+        for (; nodes[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash && arena.sameState(nodes[slot] - 1, node)) return nodes[slot] - 1;
+        }
+        keys[slot] = hash;
+        nodes[slot] = node + 1;
+        if (++size >= resizeAt) grow();
+        return MISSING;
+    }
+
+    // Insert node or replace the entry of its state; the previous node or MISSING.
+    int put(int node) {
+        long hash = arena.hash(node);
+        int slot = slot(hash);
+        for (; nodes[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == hash && arena.sameState(nodes[slot] - 1, node)) {
+                int previous = nodes[slot] - 1;
+                nodes[slot] = node + 1;
+                return previous;
+            }
+        }
+        keys[slot] = hash;
+        nodes[slot] = node + 1;
+        if (++size >= resizeAt) grow();
+        return MISSING;
+    }
+
+    int size() { return size; }
+
+    private int slot(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldNodes = nodes;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldNodes[i] == 0) continue;
+            int slot = slot(oldKeys[i]);
+            while (nodes[slot] != 0) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            nodes[slot] = oldNodes[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        nodes = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+}
\ No newline at end of file
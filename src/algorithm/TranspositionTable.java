@@ -0,0 +1,78 @@
+package algorithm;
+
+/**
+ * Fixed-size transposition table of state hash to best g.
+ * Two-way buckets, replacing stale then deeper entries.
+ */
+final class TranspositionTable {
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final int[] costs;
+    private final int[] stamps; // Iteration of last store, 0 = empty
+    private final int mask;
+    private int stored;
+
+    TranspositionTable(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Table size must be positive: " + megabytes);
+        long entries = Math.min(((long) megabytes << 20) / ENTRY_BYTES, 1L << 30);
+        int capacity = Integer.highestOneBit((int) entries);
+        this.keys = new long[capacity];
+        this.costs = new int[capacity];
+        this.stamps = new int[capacity];
+        this.mask = capacity - 2; // Even slot of a bucket
+    }
+
+    // Record a visit; false if the state was already reached at least as cheaply.
+    boolean visit(long key, int g, int iteration) {
+        int first = bucket(key);
+        for (int slot = first; slot < first + 2; slot++) {
+            if (stamps[slot] == 0 || keys[slot] != key) continue;
+            int known = costs[slot];
+            if (known < g || (known == g && stamps[slot] == iteration)) return false;
+            costs[slot] = g;
+            stamps[slot] = iteration;
+            return true;
+        }
+
+        int victim = first;
+        if (replaceable(first + 1, g, iteration)
+                && (!replaceable(first, g, iteration) || worse(first + 1, first, iteration))) {
+            victim = first + 1;
+        } else if (!replaceable(first, g, iteration)) {
+            return true; // Both entries worth keeping
+        }
+        if (stamps[victim] == 0) stored++;
+        keys[victim] = key;
+        costs[victim] = g;
+        stamps[victim] = iteration;
+        return true;
+    }
+
+    int size() { return stored; }
+
+    int capacity() { return keys.length; }
+
+    // Approximate heap footprint in bytes.
+    long memoryBytes() { return (long) keys.length * ENTRY_BYTES; }
+
+    // Empty, stale, or deeper than the incoming state.
+    private boolean replaceable(int slot, int g, int iteration) {
+        return stamps[slot] == 0 || stamps[slot] != iteration || costs[slot] >= g;
+    }
+
+    // Prefer evicting empty, then older, then deeper entries.
+    private boolean worse(int a, int b, int iteration) {
+        if (stamps[a] == 0 || stamps[b] == 0) return stamps[a] == 0;
+        boolean staleA = stamps[a] != iteration;
+        boolean staleB = stamps[b] != iteration;
+        if (staleA != staleB) return staleA;
+        if (stamps[a] != stamps[b]) return stamps[a] < stamps[b];
+        return costs[a] > costs[b];
+    }
+
+    private int bucket(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
\ No newline at end of file
@@ -1,65 +1,65 @@
 package algorithm;
 
 import core.GameState;
+import core.Layout;
 import core.Move;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import core.MoveGenerator;
 
 /**
  * Uniform Cost Search.
- * Finds shortest path.
+ * Every move costs 1, so this runs as breadth-first search.
  */
-public class UCS { 
-    private int nodesVisited;
-    private long executionTimeMillis;
+public class UCS extends PathFinder {
 
-    public UCS() {}
-
-    public GameState solve(GameState initialState) {
-        long startTime = System.currentTimeMillis();
-        nodesVisited = 0;
+    public UCS() {
+        super(null);
+    }
 
-        PriorityQueue<GameState> frontier = new PriorityQueue<>(Comparator.comparingInt(GameState::getCost));
-        Set<String> visitedStates = new HashSet<>(); 
-        frontier.add(initialState);
+    @Override
+    protected GameState search(GameState initialState) {
+        if (initialState.isWin()) return initialState;
 
-        while (!frontier.isEmpty()) {
-            GameState current = frontier.poll();
-            nodesVisited++;
+        Layout layout = initialState.getLayout();
+        NodeArena arena = new NodeArena(layout); // Insertion order is the FIFO queue
+        StateTable visitedStates = new StateTable(arena, 1 << 12);
+        MoveGenerator generator = new MoveGenerator(layout);
+        int[] moves = new int[generator.maxMoves()];
+        byte[] positions = initialState.getPositions().clone();
+        visitedStates.put(arena.addRoot(positions, initialState.getHash()));
 
-            if (current.getBoard().isWin()) {
-                executionTimeMillis = System.currentTimeMillis() - startTime;
-                return current;
-            }
-
-            String currentBoardKey = current.getBoard().toString();
-            if (visitedStates.contains(currentBoardKey)) continue;
-            visitedStates.add(currentBoardKey);
+        for (int current = 0; current < arena.size(); current++) {
+            expanded();
+            long hash = arena.hash(current);
+            arena.copyPositions(current, positions);
+            int moveCount = generator.generate(positions, moves);
+            metrics.generated += moveCount;
+            for (int i = 0; i < moveCount; i++) {
+                int piece = Move.pieceOf(moves[i]);
+                int from = positions[piece];
+                int to = from + Move.deltaOf(moves[i]);
+                long nextHash = hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, to);
+                positions[piece] = (byte) to;
+                boolean seen = visitedStates.find(nextHash, positions) != StateTable.MISSING;
+                positions[piece] = (byte) from;
+                if (seen) {
+                    metrics.duplicates++;
+                    continue;
+                }
 
-            for (Move move : current.getPossibleMoves()) {
-                GameState next = current.applyMove(move);
-                if (!visitedStates.contains(next.getBoard().toString())) {
-                    frontier.add(next);
+                int next = arena.addChild(current, moves[i], nextHash);
+                visitedStates.put(next);
+                if (arena.isWin(next)) {
+                    metrics.closed = visitedStates.size();
+                    return arena.toGameState(next, initialState);
                 }
             }
+            metrics.open(arena.size() - current - 1);
         }
-        executionTimeMillis = System.currentTimeMillis() - startTime;
+        metrics.closed = visitedStates.size();
         return null; 
     }
 
-    // Get nodes visited.
-    public int getNodesVisited() {
-        return nodesVisited;
-    }
-
-    // Get execution time (ms).
-    public long getExecutionTime() {
-        return executionTimeMillis;
-    }
-
-    // Get algorithm name.
+    @Override
     public String getName() {
         return "Uniform Cost Search";
     }
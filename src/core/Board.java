@@ -34,6 +34,30 @@ public class Board {
         }
     }
 
+    // Build from packed positions.
+    Board(Layout layout, byte[] positions) {
+        this(layout.getRows(), layout.getCols());
+        this.exitRow = layout.getExitRow();
+        this.exitCol = layout.getExitCol();
+        for (int i = 0; i < layout.getPieceCount(); i++) {
+            pieces.add(layout.pieceAt(i, positions));
+        }
+        for (int r = 0; r < rows; r++) isSpaceOnlyRow[r] = layout.isRowSpaceOnly(r);
+        for (int c = 0; c < cols; c++) isSpaceOnlyCol[c] = layout.isColSpaceOnly(c);
+        updateGrid();
+    }
+
+    // Build from stored pieces; bit i of a mask marks a space-only row or column.
+    Board(int rows, int cols, int exitRow, int exitCol, List<Piece> pieces, long spaceOnlyRows, long spaceOnlyCols) {
+        this(rows, cols);
+        this.exitRow = exitRow;
+        this.exitCol = exitCol;
+        this.pieces.addAll(pieces);
+        for (int r = 0; r < rows; r++) isSpaceOnlyRow[r] = (spaceOnlyRows >>> r & 1L) != 0;
+        for (int c = 0; c < cols; c++) isSpaceOnlyCol[c] = (spaceOnlyCols >>> c & 1L) != 0;
+        updateGrid();
+    }
+
     // Set exit location.
     public void setExit(int r, int c) {
         this.exitRow = r;
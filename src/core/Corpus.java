@@ -0,0 +1,165 @@
+package core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Packed binary puzzle corpus.
+ * Fixed-width records of board frame, exit and piece geometry, read through a mapped file.
+ */
+public final class Corpus implements Iterable<Board>, Closeable {
+    public static final String EXTENSION = ".rhc";
+    private static final int MAGIC = 0x52484342; // "RHCB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int RECORD_HEADER = 24;
+    private static final int PIECE_BYTES = 5;
+    private static final int HORIZONTAL = 1;
+    private static final int PRIMARY = 2;
+
+    private final ByteBuffer data;
+    private final int count;
+    private final int recordBytes;
+
+    private Corpus(ByteBuffer data) {
+        this.data = data;
+        this.count = data.getInt(8);
+        this.recordBytes = data.getInt(12);
+    }
+
+    // Map a corpus file read-only.
+    public static Corpus open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) throw new IOException("Not a puzzle corpus: " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) throw new IOException("Not a puzzle corpus: " + file);
+            if (channel.size() != HEADER + (long) buffer.getInt(8) * buffer.getInt(12)) {
+                throw new IOException("Truncated puzzle corpus: " + file);
+            }
+            return new Corpus(buffer);
+        }
+    }
+
+    // Pack puzzles into a corpus file, return how many were written.
+    public static int write(Iterable<Board> boards, Path file) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        int maxPieces = 0;
+        for (Board board : boards) {
+            byte[] record = pack(board);
+            maxPieces = Math.max(maxPieces, board.getPieces().size());
+            records.add(record);
+        }
+        int recordBytes = RECORD_HEADER + maxPieces * PIECE_BYTES;
+        if (HEADER + (long) records.size() * recordBytes > Integer.MAX_VALUE) throw new IOException("Corpus larger than 2 GB.");
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + records.size() * recordBytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(records.size()).putInt(recordBytes);
+        for (byte[] record : records) {
+            buffer.put(record);
+            buffer.position(buffer.position() + recordBytes - record.length);
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "rhc", ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return records.size();
+    }
+
+    // Number of puzzles.
+    public int size() { return count; }
+
+    // Piece count of a puzzle.
+    public int pieceCount(int index) {
+        return data.get(offset(index) + 4) & 0xFF;
+    }
+
+    // Rebuild a puzzle as a board.
+    public Board board(int index) {
+        int base = offset(index);
+        int pieceCount = data.get(base + 4) & 0xFF;
+        List<Piece> pieces = new ArrayList<>(pieceCount);
+        for (int i = 0; i < pieceCount; i++) {
+            int p = base + RECORD_HEADER + i * PIECE_BYTES;
+            int flags = data.get(p + 1);
+            pieces.add(new Piece((char) (data.get(p) & 0xFF), (flags & PRIMARY) != 0, (flags & HORIZONTAL) != 0,
+                    data.get(p + 4), data.get(p + 2), data.get(p + 3)));
+        }
+        return new Board(data.get(base) & 0xFF, data.get(base + 1) & 0xFF, data.get(base + 2), data.get(base + 3),
+                pieces, data.getLong(base + 8), data.getLong(base + 16));
+    }
+
+    // Lane offsets of a puzzle in Layout order, straight from the record.
+    public void positions(int index, byte[] target) {
+        int base = offset(index);
+        int pieceCount = data.get(base + 4) & 0xFF;
+        for (int i = 0; i < pieceCount; i++) {
+            int p = base + RECORD_HEADER + i * PIECE_BYTES;
+            target[i] = data.get(p + ((data.get(p + 1) & HORIZONTAL) != 0 ? 3 : 2));
+        }
+    }
+
+    @Override
+    public Iterator<Board> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Board next() {
+                if (next >= count) throw new NoSuchElementException();
+                return board(next++);
+            }
+        };
+    }
+
+    // Mapped buffers are released by the collector.
+    @Override
+    public void close() {
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        return HEADER + index * recordBytes;
+    }
+
+    // One record without padding.
+    private static byte[] pack(Board board) {
+        List<Piece> pieces = board.getPieces();
+        if (pieces.size() > 255) throw new IllegalArgumentException("More than 255 pieces.");
+        if (board.getRows() > Layout.MAX_SIDE || board.getCols() > Layout.MAX_SIDE) {
+            throw new IllegalArgumentException("Board larger than " + Layout.MAX_SIDE + " cells per side.");
+        }
+        long spaceRows = 0L, spaceCols = 0L;
+        for (int r = 0; r < board.getRows(); r++) if (board.isRowSpaceOnly(r)) spaceRows |= 1L << r;
+        for (int c = 0; c < board.getCols(); c++) if (board.isColSpaceOnly(c)) spaceCols |= 1L << c;
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + pieces.size() * PIECE_BYTES);
+        record.put((byte) board.getRows()).put((byte) board.getCols())
+                .put((byte) board.getExitRow()).put((byte) board.getExitCol())
+                .put((byte) pieces.size()).put(new byte[3])
+                .putLong(spaceRows).putLong(spaceCols);
+        for (Piece piece : pieces) {
+            if (piece.getId() > 0xFF) throw new IllegalArgumentException("Piece id outside Latin-1: " + piece.getId());
+            record.put((byte) piece.getId())
+                    .put((byte) ((piece.isHorizontal() ? HORIZONTAL : 0) | (piece.isPrimary() ? PRIMARY : 0)))
+                    .put((byte) piece.getRow()).put((byte) piece.getCol()).put((byte) piece.getSize());
+        }
+        return record.array();
+    }
+}
\ No newline at end of file
@@ -1,116 +1,136 @@
 package core;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parses puzzle input files.
+ * Reads one or more concatenated puzzles in a single pass.
  */
-public class FileParser {
+public class FileParser implements Iterable<Board>, Closeable {
     private final String filePath;
-    
+    private BufferedReader reader;
+    private String pushedBack;
+    private int lineNumber;
+
     public FileParser(String filePath) {
         this.filePath = filePath;
     }
-    
-    // Parse the puzzle file.
+
+    // Parse puzzles from an open reader, e.g. standard input.
+    public FileParser(Reader reader) {
+        this.filePath = null;
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    // Parser over standard input.
+    public static FileParser stdin() {
+        return new FileParser(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    }
+
+    // Parse the first puzzle of the file.
     public Board parseFile() throws IOException {
-        List<String> lines = readAllLines();
-        
-        int lineIdx = 0;
-        String dimLine = getNextNonCommentLine(lines, lineIdx);
-        lineIdx = lines.indexOf(dimLine) + 1;
-        String[] dimensions = dimLine.split(" ");
-        int declaredRows = Integer.parseInt(dimensions[0]);
-        int declaredCols = Integer.parseInt(dimensions[1]);
-        
-        String pieceCountLine = getNextNonCommentLine(lines, lineIdx);
-        lineIdx = lines.indexOf(pieceCountLine) + 1;
-
-        // Read potential grid lines
-        List<String> potentialGridLines = new ArrayList<>();
-        for (int i = lineIdx; i < lines.size(); i++) {
-            if (!lines.get(i).trim().startsWith("//") && !lines.get(i).trim().isEmpty()) {
-                potentialGridLines.add(lines.get(i));
-            }
+        try {
+            Board board = next();
+            if (board == null) throw new IOException("Expected more content in file.");
+            return board;
+        } finally {
+            close();
+        }
+    }
+
+    // Parse the next puzzle, or null at end of input.
+    public Board next() throws IOException {
+        String dimLine = nextContentLine();
+        if (dimLine == null) return null;
+        int dimLineNumber = lineNumber;
+        String[] dimensions = dimLine.trim().split("\\s+");
+        int declaredRows, declaredCols;
+        try {
+            declaredRows = Integer.parseInt(dimensions[0]);
+            declaredCols = Integer.parseInt(dimensions[1]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Line " + dimLineNumber + ": expected board size, found \"" + dimLine.trim() + "\".");
         }
-        
-        // Find exit positions and actual grid content
+        if (nextContentLine() == null) throw new IOException("Expected more content in file."); // Piece count
+
+        // Grid rows, with standalone 'K' lines marking a top or bottom exit
         int topExitCol = -1;
         int bottomExitCol = -1;
-        boolean leftExitFound = false;
-        boolean rightExitFound = false;
-        List<String> actualGridLines = new ArrayList<>();
-        
-        for (int r = 0; r < potentialGridLines.size(); r++) {
-            String line = potentialGridLines.get(r);
-            String trimmedLine = line.trim();
-            
-            // Check for standalone 'K' line
-            if (trimmedLine.equals("K")) {
-                int kCol = line.indexOf('K');
-                if (actualGridLines.isEmpty()) {
-                    // K is above the grid
-                    topExitCol = kCol;
-                } else {
-                    // K is below the grid
-                    bottomExitCol = kCol;
-                }
+        List<String> gridLines = new ArrayList<>(declaredRows);
+        while (gridLines.size() < declaredRows) {
+            String line = nextContentLine();
+            if (line == null) break;
+            if (line.trim().equals("K")) {
+                if (gridLines.isEmpty()) topExitCol = line.indexOf('K');
+                else bottomExitCol = line.indexOf('K');
                 continue;
             }
-
-            actualGridLines.add(line);
+            gridLines.add(line);
         }
-        
-        // Create board and configuration array
+        String after = nextContentLine();
+        if (after != null && after.trim().equals("K")) bottomExitCol = after.indexOf('K');
+        else pushedBack = after;
+
         Board board = new Board(declaredRows, declaredCols);
         char[][] configuration = new char[declaredRows][declaredCols];
         for (char[] row : configuration) {
             Arrays.fill(row, '.');
         }
-        
-        // Process grid lines to fill configuration
-        for (int r = 0; r < Math.min(actualGridLines.size(), declaredRows); r++) {
-            String line = actualGridLines.get(r);
-            
+
+        boolean leftExitFound = false;
+        boolean rightExitFound = false;
+        for (int r = 0; r < gridLines.size(); r++) {
+            String line = gridLines.get(r);
+
             // Check for K at beginning of line
             if (line.startsWith("K")) {
                 board.setExit(r, -1);
                 leftExitFound = true;
                 line = line.substring(1);
             }
-            
-            // Skip leading spaces
+
             int gridColIndex = 0;
             for (int c = 0; c < line.length() && gridColIndex < declaredCols; c++) {
                 char currentChar = line.charAt(c);
-                
+
                 // Skip leading spaces
                 if (currentChar == ' ') {
                     continue;
                 }
-                
+
                 // Handle K within grid (unusual case)
                 if (currentChar == 'K') {
                     board.setExit(r, gridColIndex);
                 } else {
                     configuration[r][gridColIndex] = currentChar;
                 }
-                
+
                 gridColIndex++;
             }
-            
-            // Check for K at end of lin
+
+            // Check for K at end of line
             if (line.endsWith("K") && !line.trim().equals("K")) {
                 board.setExit(r, declaredCols);
                 rightExitFound = true;
             }
         }
-        
+
         // Set top/bottom exits if detected
         if (!leftExitFound && !rightExitFound) {
             if (topExitCol != -1) {
@@ -119,32 +139,70 @@ public class FileParser {
                 board.setExit(declaredRows, bottomExitCol);
             }
         }
-        
-        
+
         board.initialize(configuration);
         return board;
     }
 
-    // Read all lines from file.
-    private List<String> readAllLines() throws IOException {
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
+    // Lazily parsed puzzles; I/O errors surface as UncheckedIOException.
+    @Override
+    public Iterator<Board> iterator() {
+        return new Iterator<>() {
+            private Board upcoming;
+
+            @Override
+            public boolean hasNext() {
+                if (upcoming == null) {
+                    try {
+                        upcoming = FileParser.this.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return upcoming != null;
             }
-        }
-        return lines;
+
+            @Override
+            public Board next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Board board = upcoming;
+                upcoming = null;
+                return board;
+            }
+        };
     }
 
-    // Get next non-comment/empty line.
-    private String getNextNonCommentLine(List<String> lines, int startIndex) throws IOException {
-        for (int i = startIndex; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
-            if (!line.startsWith("//") && !line.isEmpty()) {
-                return line;
+    // Lazily parsed puzzles as a sequential stream that closes the input.
+    public Stream<Board> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) reader.close();
+    }
+
+    // Next non-comment, non-empty line, or null at end of input.
+    private String nextContentLine() throws IOException {
+        if (pushedBack != null) {
+            String line = pushedBack;
+            pushedBack = null;
+            return line;
+        }
+        if (reader == null) reader = new BufferedReader(new FileReader(filePath));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (!trimmed.startsWith("//") && !trimmed.isEmpty()) return line;
         }
-        throw new IOException("Expected more content in file.");
+        return null;
     }
 }
\ No newline at end of file
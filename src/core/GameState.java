@@ -1,116 +1,88 @@
 package core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Represents a game state.
+ * Stores packed piece offsets over a shared layout.
  */
 public class GameState {
-    private final Board board;
+    public static final int NO_MOVE = -1;
+
+    private final Layout layout;
+    private final byte[] positions;
     private final GameState parent;
-    private final Move lastMove;
+    private final int move;
     private final int cost;
-    
+    private final long hash;
+
     public GameState(Board board) {
-        this(board, null, null, 0);
+        this(new Layout(board), board);
     }
-    
-    public GameState(Board board, GameState parent, Move lastMove) {
-        this(board, parent, lastMove, (parent != null ? parent.getCost() + 1 : 0));
+
+    private GameState(Layout layout, Board board) {
+        this(layout, layout.encode(board), null, NO_MOVE);
+    }
+
+    public GameState(Layout layout, byte[] positions, GameState parent, int move) {
+        this(layout, positions, parent, move, (parent != null ? parent.getCost() + 1 : 0), layout.hash(positions));
     }
 
-    private GameState(Board board, GameState parent, Move lastMove, int cost) {
-        this.board = board;
+    private GameState(Layout layout, byte[] positions, GameState parent, int move, int cost, long hash) {
+        this.layout = layout;
+        this.positions = positions;
         this.parent = parent;
-        this.lastMove = lastMove;
+        this.move = move;
         this.cost = cost;
+        this.hash = hash;
     }
-    
-    public Board getBoard() { return board; }
+
+    // Decode into a display board.
+    public Board getBoard() { return layout.decode(positions); }
+    public Layout getLayout() { return layout; }
+    public byte[] getPositions() { return positions; }
     public GameState getParent() { return parent; }
-    public Move getLastMove() { return lastMove; }
+    public int getMove() { return move; }
     public int getCost() { return cost; }
-    
-    public List<Move> getPossibleMoves() {
-        List<Move> moves = new ArrayList<>();
-        char[][] grid = board.getGrid(); // Use a copy
-        int rows = board.getRows();
-        int cols = board.getCols();
-        
-        for (Piece piece : board.getPieces()) {
-            int r = piece.getRow();
-            int c = piece.getCol();
-            int size = piece.getSize();
-            
-            if (piece.isHorizontal()) {
-                // Check LEFT (within grid)
-                int maxStepsLeftInGrid = 0;
-                for (int i = c - 1; i >= 0 && grid[r][i] == '.'; i--) maxStepsLeftInGrid++;
-                if (maxStepsLeftInGrid > 0) moves.add(new Move(piece, Move.LEFT, maxStepsLeftInGrid));
-                
-                // Check LEFT (to exit at col = -1)
-                if (c == 0 && board.getExitCol() == -1 && board.getExitRow() == r) {
-                    moves.add(new Move(piece, Move.LEFT, 1));
-                }
-
-                // Check RIGHT (within grid)
-                int maxStepsRightInGrid = 0;
-                for (int i = c + size; i < cols && grid[r][i] == '.'; i++) maxStepsRightInGrid++;
-                if (maxStepsRightInGrid > 0) moves.add(new Move(piece, Move.RIGHT, maxStepsRightInGrid));
-
-                // Check RIGHT (to exit at col = cols)
-                if ((c + size -1) == (cols - 1) && board.getExitCol() == cols && board.getExitRow() == r) {
-                    moves.add(new Move(piece, Move.RIGHT, 1));
-                }
+    public long getHash() { return hash; }
 
-            } else { // Vertical
-                // Check UP (within grid)
-                int maxStepsUpInGrid = 0;
-                for (int i = r - 1; i >= 0 && grid[i][c] == '.'; i--) maxStepsUpInGrid++;
-                if (maxStepsUpInGrid > 0) moves.add(new Move(piece, Move.UP, maxStepsUpInGrid));
+    // Rebuild the move that produced this state.
+    public Move getLastMove() {
+        if (parent == null || move == NO_MOVE) return null;
+        int piece = Move.pieceOf(move);
+        return new Move(layout.pieceAt(piece, parent.positions), Move.directionOf(move), Move.stepsOf(move));
+    }
 
-                // Check UP (to exit at row = -1)
-                if (r == 0 && board.getExitRow() == -1 && board.getExitCol() == c) {
-                    moves.add(new Move(piece, Move.UP, 1));
-                }
-                
-                // Check DOWN (within grid)
-                int maxStepsDownInGrid = 0;
-                for (int i = r + size; i < rows && grid[i][c] == '.'; i++) maxStepsDownInGrid++;
-                if (maxStepsDownInGrid > 0) moves.add(new Move(piece, Move.DOWN, maxStepsDownInGrid));
+    // Check win condition.
+    public boolean isWin() {
+        return layout.isWin(positions);
+    }
 
-                // Check DOWN (to exit at row = rows)
-                if ((r + size - 1) == (rows - 1) && board.getExitRow() == rows && board.getExitCol() == c) {
-                    moves.add(new Move(piece, Move.DOWN, 1));
-                }
-            }
-        }
+    public List<Move> getPossibleMoves() {
+        MoveGenerator generator = new MoveGenerator(layout);
+        List<Move> moves = new ArrayList<>();
+        generator.generate(positions, (piece, direction, steps) ->
+                moves.add(new Move(layout.pieceAt(piece, positions), direction, steps)));
         return moves;
     }
     
     // Apply move, return new state.
     public GameState applyMove(Move move) {
-        Board newBoard = board.copy();
-        Piece movingPiece = null;
-        for (Piece p : newBoard.getPieces()) { 
-            if (p.getId() == move.getPiece().getId()) {
-                movingPiece = p;
-                break;
-            }
-        }
-        
-        if (movingPiece != null) {
-            switch (move.getDirection()) {
-                case Move.UP    -> movingPiece.setRow(movingPiece.getRow() - move.getSteps());
-                case Move.RIGHT -> movingPiece.setCol(movingPiece.getCol() + move.getSteps());
-                case Move.DOWN  -> movingPiece.setRow(movingPiece.getRow() + move.getSteps());
-                case Move.LEFT  -> movingPiece.setCol(movingPiece.getCol() - move.getSteps());
-            }
-            newBoard.updateGrid();
-        }
-        return new GameState(newBoard, this, move);
+        int index = layout.indexOf(move.getPiece().getId());
+        if (index == -1) return new GameState(layout, positions.clone(), this, NO_MOVE, cost + 1, hash);
+        return applyMove(Move.pack(index, move.getDirection(), move.getSteps()));
+    }
+
+    // Apply packed move, return new state.
+    public GameState applyMove(int move) {
+        int index = Move.pieceOf(move);
+        byte[] next = positions.clone();
+        next[index] = (byte) (next[index] + Move.deltaOf(move));
+        long nextHash = hash ^ layout.zobrist(index, positions[index]) ^ layout.zobrist(index, next[index]);
+        return new GameState(layout, next, this, move, cost + 1, nextHash);
     }
     
     // Reconstruct solution path.
@@ -118,22 +90,25 @@ public class GameState {
         List<GameState> path = new ArrayList<>();
         GameState current = this;
         while (current != null) {
-            path.add(0, current);
+            path.add(current);
             current = current.getParent();
         }
+        Collections.reverse(path);
         return path;
     }
-    
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GameState gameState = (GameState) o;
-        return Objects.equals(board.toString(), gameState.board.toString()); 
+        // Compare full positions only when hashes collide.
+        return hash == gameState.hash && layout == gameState.layout
+                && Arrays.equals(positions, gameState.positions);
     }
-    
+
     @Override
     public int hashCode() {
-        return Objects.hash(board.toString());
+        return Long.hashCode(hash);
     }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Static puzzle geometry shared by all states.
+ * A state is a byte vector of lane offsets, one per piece.
+ */
+public final class Layout {
+    public static final int MAX_SIDE = 62;
+    private static final long ZOBRIST_SEED = 0x2545F4914F6CDD1DL;
+
+    private final int rows;
+    private final int cols;
+    private final int exitRow;
+    private final int exitCol;
+    private final int pieceCount;
+    private final char[] ids;
+    private final boolean[] horizontal;
+    private final int[] sizes;
+    private final int[] lanes;
+    private final int primaryIndex;
+    private final int winMin;
+    private final int winMax;
+    private final boolean[] isSpaceOnlyRow;
+    private final boolean[] isSpaceOnlyCol;
+    private final long[][] zobrist;
+    private final long[][] bodyBits;
+    private final boolean[] exitLow;
+    private final boolean[] exitHigh;
+
+    public Layout(Board board) {
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        if (rows > MAX_SIDE || cols > MAX_SIDE) {
+            throw new IllegalArgumentException("Board larger than " + MAX_SIDE + " cells per side.");
+        }
+        this.exitRow = board.getExitRow();
+        this.exitCol = board.getExitCol();
+
+        List<Piece> pieces = board.getPieces();
+        this.pieceCount = pieces.size();
+        this.ids = new char[pieceCount];
+        this.horizontal = new boolean[pieceCount];
+        this.sizes = new int[pieceCount];
+        this.lanes = new int[pieceCount];
+
+        int primary = -1;
+        for (int i = 0; i < pieceCount; i++) {
+            Piece piece = pieces.get(i);
+            ids[i] = piece.getId();
+            horizontal[i] = piece.isHorizontal();
+            sizes[i] = piece.getSize();
+            lanes[i] = piece.isHorizontal() ? piece.getRow() : piece.getCol();
+            if (piece.isPrimary() && primary == -1) primary = i;
+        }
+        this.primaryIndex = primary;
+
+        this.isSpaceOnlyRow = new boolean[rows];
+        this.isSpaceOnlyCol = new boolean[cols];
+        for (int r = 0; r < rows; r++) isSpaceOnlyRow[r] = board.isRowSpaceOnly(r);
+        for (int c = 0; c < cols; c++) isSpaceOnlyCol[c] = board.isColSpaceOnly(c);
+
+        // Winning offsets of the primary piece, mirrors Board.isWin().
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        if (primary != -1) {
+            int size = sizes[primary];
+            boolean h = horizontal[primary];
+            int lane = lanes[primary];
+            if (h && exitCol == cols) {
+                if (lane == exitRow) min = max = cols - size;
+            } else if (h && exitCol == -1) {
+                if (lane == exitRow) min = max = 0;
+            } else if (!h && exitRow == rows) {
+                if (lane == exitCol) min = max = rows - size;
+            } else if (!h && exitRow == -1) {
+                if (lane == exitCol) min = max = 0;
+            } else if (exitRow >= 0 && exitRow < rows && exitCol >= 0 && exitCol < cols) {
+                if (h && lane == exitRow) {
+                    min = exitCol - size + 1;
+                    max = exitCol;
+                } else if (!h && lane == exitCol) {
+                    min = exitRow - size + 1;
+                    max = exitRow;
+                }
+            }
+        }
+        this.winMin = min;
+        this.winMax = max;
+
+        // One key per piece and offset, including the off-grid exit slots.
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        this.zobrist = new long[pieceCount][];
+        for (int i = 0; i < pieceCount; i++) {
+            zobrist[i] = new long[laneLength(i) - sizes[i] + 3];
+            for (int k = 0; k < zobrist[i].length; k++) zobrist[i][k] = random.nextLong();
+        }
+
+        // Lane bits covered by each piece at each offset, plus exits on its lane.
+        this.bodyBits = new long[pieceCount][];
+        this.exitLow = new boolean[pieceCount];
+        this.exitHigh = new boolean[pieceCount];
+        for (int i = 0; i < pieceCount; i++) {
+            int length = laneLength(i);
+            bodyBits[i] = new long[length - sizes[i] + 3];
+            for (int offset = -1; offset <= length - sizes[i] + 1; offset++) {
+                long bits = 0L;
+                for (int s = 0; s < sizes[i]; s++) {
+                    int cell = offset + s;
+                    if (cell >= 0 && cell < length) bits |= 1L << cell;
+                }
+                bodyBits[i][offset + 1] = bits;
+            }
+            if (horizontal[i]) {
+                exitLow[i] = exitCol == -1 && exitRow == lanes[i];
+                exitHigh[i] = exitCol == cols && exitRow == lanes[i];
+            } else {
+                exitLow[i] = exitRow == -1 && exitCol == lanes[i];
+                exitHigh[i] = exitRow == rows && exitCol == lanes[i];
+            }
+        }
+    }
+
+    // Encode board piece positions.
+    public byte[] encode(Board board) {
+        byte[] positions = new byte[pieceCount];
+        List<Piece> pieces = board.getPieces();
+        for (int i = 0; i < pieceCount; i++) {
+            Piece piece = pieces.get(i);
+            positions[i] = (byte) (horizontal[i] ? piece.getCol() : piece.getRow());
+        }
+        return positions;
+    }
+
+    // Decode positions into a display board.
+    public Board decode(byte[] positions) {
+        return new Board(this, positions);
+    }
+
+    // Build a character grid for positions.
+    public char[][] toGrid(byte[] positions) {
+        char[][] grid = new char[rows][cols];
+        for (char[] rowGrid : grid) Arrays.fill(rowGrid, '.');
+        for (int i = 0; i < pieceCount; i++) {
+            for (int s = 0; s < sizes[i]; s++) {
+                int offset = positions[i] + s;
+                if (offset < 0 || offset >= laneLength(i)) continue;
+                if (horizontal[i]) grid[lanes[i]][offset] = ids[i];
+                else grid[offset][lanes[i]] = ids[i];
+            }
+        }
+        return grid;
+    }
+
+    // Create a piece at its encoded position.
+    public Piece pieceAt(int index, byte[] positions) {
+        int offset = positions[index];
+        return new Piece(ids[index], index == primaryIndex, horizontal[index], sizes[index],
+                horizontal[index] ? lanes[index] : offset,
+                horizontal[index] ? offset : lanes[index]);
+    }
+
+    // Find piece index by identifier.
+    public int indexOf(char id) {
+        for (int i = 0; i < pieceCount; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    // Zobrist key of a piece at an offset.
+    public long zobrist(int index, int offset) {
+        return zobrist[index][offset + 1];
+    }
+
+    // Full Zobrist hash of positions.
+    public long hash(byte[] positions) {
+        long hash = 0L;
+        for (int i = 0; i < pieceCount; i++) hash ^= zobrist[i][positions[i] + 1];
+        return hash;
+    }
+
+    // Fingerprint of the frame, exit and every piece's geometry.
+    public long signature() {
+        long h = 0xCBF29CE484222325L;
+        int[] frame = {rows, cols, exitRow, exitCol, pieceCount, primaryIndex};
+        for (int v : frame) h = (h ^ v) * 0x100000001B3L;
+        for (int i = 0; i < pieceCount; i++) {
+            h = (h ^ ids[i]) * 0x100000001B3L;
+            h = (h ^ (horizontal[i] ? 1 : 0)) * 0x100000001B3L;
+            h = (h ^ lanes[i]) * 0x100000001B3L;
+            h = (h ^ sizes[i]) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // Lane cells covered by a piece at an offset.
+    public long bodyBits(int index, int offset) {
+        return bodyBits[index][offset + 1];
+    }
+
+    // Exit sits before the first cell of the piece's lane.
+    public boolean hasExitLow(int index) { return exitLow[index]; }
+
+    // Exit sits after the last cell of the piece's lane.
+    public boolean hasExitHigh(int index) { return exitHigh[index]; }
+
+    // Check win condition.
+    public boolean isWin(byte[] positions) {
+        return primaryIndex != -1 && isWinningOffset(positions[primaryIndex]);
+    }
+
+    // Check a primary piece offset against the exit.
+    public boolean isWinningOffset(int offset) {
+        return offset >= winMin && offset <= winMax;
+    }
+
+    // Length of a piece's lane.
+    public int laneLength(int index) {
+        return horizontal[index] ? cols : rows;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getExitRow() { return exitRow; }
+    public int getExitCol() { return exitCol; }
+    public int getPieceCount() { return pieceCount; }
+    public int getPrimaryIndex() { return primaryIndex; }
+    public int getWinMin() { return winMin; }
+    public int getWinMax() { return winMax; }
+    public char getId(int index) { return ids[index]; }
+    public boolean isHorizontal(int index) { return horizontal[index]; }
+    public int getSize(int index) { return sizes[index]; }
+    public int getLane(int index) { return lanes[index]; }
+    public boolean isRowSpaceOnly(int r) { return (r >= 0 && r < rows) && isSpaceOnlyRow[r]; }
+    public boolean isColSpaceOnly(int c) { return (c >= 0 && c < cols) && isSpaceOnlyCol[c]; }
+}
\ No newline at end of file
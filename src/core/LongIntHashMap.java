@@ -0,0 +1,126 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table with primitive long keys.
+ * Linear probing, optional int payload per key.
+ */
+public final class LongIntHashMap {
+    public static final int MISSING = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private final boolean withValues;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntHashMap() {
+        this(1 << 12, true);
+    }
+
+    public LongIntHashMap(int expectedSize, boolean withValues) {
+        this.withValues = withValues;
+        allocate(capacityFor(expectedSize));
+    }
+
+    // Get value, or MISSING.
+    public int get(long key) {
+        if (key == 0L) return hasZeroKey ? zeroValue : MISSING;
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == 0L) return MISSING;
+            if (k == key) return withValues ? values[slot] : 0;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Check key presence.
+    public boolean contains(long key) {
+        return get(key) != MISSING;
+    }
+
+    // Insert key without payload; true if new.
+    public boolean add(long key) {
+        return put(key, 0) == MISSING;
+    }
+
+    // Insert or replace, return previous value or MISSING.
+    public int put(long key, int value) {
+        if (key == 0L) {
+            int previous = hasZeroKey ? zeroValue : MISSING;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == 0L) {
+                keys[slot] = key;
+                if (withValues) values[slot] = value;
+                if (++size >= resizeAt) grow();
+                return MISSING;
+            }
+            if (k == key) {
+                if (!withValues) return 0;
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Remove all keys, keep capacity.
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    public int size() { return size; }
+
+    // Approximate heap footprint in bytes.
+    public long memoryBytes() {
+        return (long) keys.length * (withValues ? 12 : 8);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0L) continue;
+            int slot = slot(key);
+            while (keys[slot] != 0L) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            if (withValues) values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = withValues ? new int[capacity] : null;
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.max(expectedSize, MIN_CAPACITY) * 4 / 3 + 1;
+        if (needed > (1 << 30)) throw new IllegalArgumentException("Table too large: " + expectedSize);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
\ No newline at end of file
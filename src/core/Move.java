@@ -34,6 +34,37 @@ public class Move {
         return steps;
     }
     
+    // Pack piece index, direction and steps into an int.
+    public static int pack(int piece, int direction, int steps) {
+        return (piece << 8) | (direction << 6) | steps;
+    }
+
+    // Get piece index of a packed move.
+    public static int pieceOf(int move) {
+        return move >>> 8;
+    }
+
+    // Get direction of a packed move.
+    public static int directionOf(int move) {
+        return (move >>> 6) & 3;
+    }
+
+    // Get steps of a packed move.
+    public static int stepsOf(int move) {
+        return move & 63;
+    }
+
+    // Get signed lane offset change of a packed move.
+    public static int deltaOf(int move) {
+        int direction = directionOf(move);
+        return (direction == UP || direction == LEFT) ? -stepsOf(move) : stepsOf(move);
+    }
+
+    // Reverse a packed move.
+    public static int reverse(int move) {
+        return move ^ (2 << 6);
+    }
+
     // Get direction as string.
     public String getDirectionString() {
         return switch (direction) {
@@ -0,0 +1,228 @@
+package core;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Allocation-free move generator.
+ * Slides are read from per-row and per-column occupancy bitmasks.
+ */
+public final class MoveGenerator {
+    /**
+     * Receives generated moves.
+     */
+    @FunctionalInterface
+    public interface MoveSink {
+        void accept(int piece, int direction, int steps);
+    }
+
+    private final Layout layout;
+    private final long[] rowMask;
+    private final long[] colMask;
+
+    public MoveGenerator(Layout layout) {
+        this.layout = layout;
+        this.rowMask = new long[layout.getRows()];
+        this.colMask = new long[layout.getCols()];
+    }
+
+    // Upper bound of moves per state.
+    public int maxMoves() {
+        return layout.getPieceCount() * 4;
+    }
+
+    // Generate packed moves into buffer, return count.
+    public int generate(byte[] positions, int[] buffer) {
+        load(positions);
+        return generateLoaded(positions, buffer);
+    }
+
+    // Generate from the current masks without reloading them.
+    public int generateLoaded(byte[] positions, int[] buffer) {
+        int count = 0;
+        for (int p = 0; p < layout.getPieceCount(); p++) {
+            int offset = positions[p];
+            int low = slideLow(p, offset);
+            int high = slideHigh(p, offset);
+            boolean h = layout.isHorizontal(p);
+            int lowDir = h ? Move.LEFT : Move.UP;
+            int highDir = h ? Move.RIGHT : Move.DOWN;
+
+            if (low > 0) buffer[count++] = Move.pack(p, lowDir, low);
+            if (offset == 0 && layout.hasExitLow(p)) buffer[count++] = Move.pack(p, lowDir, 1);
+            if (high > 0) buffer[count++] = Move.pack(p, highDir, high);
+            if (offset + layout.getSize(p) == layout.laneLength(p) && layout.hasExitHigh(p)) {
+                buffer[count++] = Move.pack(p, highDir, 1);
+            }
+        }
+        return count;
+    }
+
+    // Generate moves into a sink.
+    public void generate(byte[] positions, MoveSink sink) {
+        load(positions);
+        for (int p = 0; p < layout.getPieceCount(); p++) {
+            int offset = positions[p];
+            int low = slideLow(p, offset);
+            int high = slideHigh(p, offset);
+            boolean h = layout.isHorizontal(p);
+            int lowDir = h ? Move.LEFT : Move.UP;
+            int highDir = h ? Move.RIGHT : Move.DOWN;
+
+            if (low > 0) sink.accept(p, lowDir, low);
+            if (offset == 0 && layout.hasExitLow(p)) sink.accept(p, lowDir, 1);
+            if (high > 0) sink.accept(p, highDir, high);
+            if (offset + layout.getSize(p) == layout.laneLength(p) && layout.hasExitHigh(p)) {
+                sink.accept(p, highDir, 1);
+            }
+        }
+    }
+
+    // Generate packed moves leading back to predecessors, return count.
+    // The forward move from a predecessor is Move.reverse() of the entry.
+    public int generatePredecessors(byte[] positions, int[] buffer) {
+        load(positions);
+        int count = 0;
+        for (int p = 0; p < layout.getPieceCount(); p++) {
+            int x = positions[p];
+            int size = layout.getSize(p);
+            int length = layout.laneLength(p);
+            int low = slideLow(p, x);
+            int high = slideHigh(p, x);
+            boolean h = layout.isHorizontal(p);
+            int lowDir = h ? Move.LEFT : Move.UP;
+            int highDir = h ? Move.RIGHT : Move.DOWN;
+
+            // Arrived by a maximal slide towards the high end.
+            if (x + size <= length && high == 0) {
+                for (int steps = 1; steps <= low; steps++) buffer[count++] = Move.pack(p, lowDir, steps);
+                if (low == x && layout.hasExitLow(p)) buffer[count++] = Move.pack(p, lowDir, x + 1);
+            }
+            // Arrived by a maximal slide towards the low end.
+            if (x >= 0 && low == 0) {
+                for (int steps = 1; steps <= high; steps++) buffer[count++] = Move.pack(p, highDir, steps);
+                if (x + size + high == length && layout.hasExitHigh(p)) {
+                    buffer[count++] = Move.pack(p, highDir, high + 1);
+                }
+            }
+            // Arrived through the exit.
+            if (x == -1 && layout.hasExitLow(p) && high > 0) buffer[count++] = Move.pack(p, highDir, 1);
+            if (x == length - size + 1 && layout.hasExitHigh(p) && low > 0) buffer[count++] = Move.pack(p, lowDir, 1);
+        }
+        return count;
+    }
+
+    // Upper bound of predecessors per state.
+    public int maxPredecessors() {
+        int bound = 0;
+        for (int p = 0; p < layout.getPieceCount(); p++) bound += layout.laneLength(p) + 4;
+        return bound;
+    }
+
+    // Enumerate every placement with the primary piece at the exit.
+    public void forEachGoal(Consumer<byte[]> consumer) {
+        int primary = layout.getPrimaryIndex();
+        if (primary == -1) return;
+        clear();
+        byte[] positions = new byte[layout.getPieceCount()];
+        int max = Math.min(layout.getWinMax(), layout.laneLength(primary) - layout.getSize(primary));
+        for (int offset = Math.max(layout.getWinMin(), 0); offset <= max; offset++) {
+            positions[primary] = (byte) offset;
+            place(primary, offset);
+            placeRemaining(0, primary, positions, consumer);
+            remove(primary, offset);
+        }
+    }
+
+    private void placeRemaining(int p, int skip, byte[] positions, Consumer<byte[]> consumer) {
+        if (p == skip) p++;
+        if (p == layout.getPieceCount()) {
+            consumer.accept(positions.clone());
+            return;
+        }
+        int last = layout.laneLength(p) - layout.getSize(p);
+        for (int offset = 0; offset <= last; offset++) {
+            if (!fits(p, offset)) continue;
+            positions[p] = (byte) offset;
+            place(p, offset);
+            placeRemaining(p + 1, skip, positions, consumer);
+            remove(p, offset);
+        }
+    }
+
+    // Rebuild occupancy masks.
+    public void load(byte[] positions) {
+        clear();
+        for (int p = 0; p < layout.getPieceCount(); p++) {
+            place(p, positions[p]);
+        }
+    }
+
+    // Move a piece inside the current masks.
+    public void shift(int p, int from, int to) {
+        remove(p, from);
+        place(p, to);
+    }
+
+    // Empty the masks.
+    public void clear() {
+        Arrays.fill(rowMask, 0L);
+        Arrays.fill(colMask, 0L);
+    }
+
+    // Check a piece's cells against the current masks.
+    public boolean fits(int p, int offset) {
+        return (laneOccupancy(p) & layout.bodyBits(p, offset)) == 0;
+    }
+
+    // Mark a piece's cells as occupied.
+    public void place(int p, int offset) {
+        long body = layout.bodyBits(p, offset);
+        int lane = layout.getLane(p);
+        long laneBit = 1L << lane;
+        if (layout.isHorizontal(p)) {
+            rowMask[lane] |= body;
+            for (long b = body; b != 0; b &= b - 1) colMask[Long.numberOfTrailingZeros(b)] |= laneBit;
+        } else {
+            colMask[lane] |= body;
+            for (long b = body; b != 0; b &= b - 1) rowMask[Long.numberOfTrailingZeros(b)] |= laneBit;
+        }
+    }
+
+    // Clear a piece's cells.
+    public void remove(int p, int offset) {
+        long body = layout.bodyBits(p, offset);
+        int lane = layout.getLane(p);
+        long laneBit = ~(1L << lane);
+        if (layout.isHorizontal(p)) {
+            rowMask[lane] &= ~body;
+            for (long b = body; b != 0; b &= b - 1) colMask[Long.numberOfTrailingZeros(b)] &= laneBit;
+        } else {
+            colMask[lane] &= ~body;
+            for (long b = body; b != 0; b &= b - 1) rowMask[Long.numberOfTrailingZeros(b)] &= laneBit;
+        }
+    }
+
+    // Free cells before the piece inside the grid.
+    public int slideLow(int p, int offset) {
+        if (offset <= 0) return 0;
+        long blocked = laneOccupancy(p) & ((1L << offset) - 1);
+        if (blocked == 0) return offset;
+        return offset - 1 - (63 - Long.numberOfLeadingZeros(blocked));
+    }
+
+    // Free cells after the piece inside the grid.
+    public int slideHigh(int p, int offset) {
+        int end = offset + layout.getSize(p);
+        int length = layout.laneLength(p);
+        if (end >= length || end < 0) return 0;
+        long blocked = laneOccupancy(p) >>> end;
+        if (blocked == 0) return length - end;
+        return Math.min(Long.numberOfTrailingZeros(blocked), length - end);
+    }
+
+    private long laneOccupancy(int p) {
+        int lane = layout.getLane(p);
+        return layout.isHorizontal(p) ? rowMask[lane] : colMask[lane];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package core;
+
+/**
+ * Mutable board for depth-first search.
+ * Moves are made and unmade in place with incremental hash and masks.
+ */
+public final class SearchBoard {
+    private final Layout layout;
+    private final byte[] positions;
+    private final MoveGenerator generator;
+    private long hash;
+
+    public SearchBoard(GameState state) {
+        this(state.getLayout(), state.getPositions());
+    }
+
+    public SearchBoard(Layout layout, byte[] positions) {
+        this.layout = layout;
+        this.positions = positions.clone();
+        this.generator = new MoveGenerator(layout);
+        this.hash = layout.hash(this.positions);
+        generator.load(this.positions);
+    }
+
+    public Layout getLayout() { return layout; }
+    public long getHash() { return hash; }
+    public int getPieceCount() { return positions.length; }
+    public int maxMoves() { return generator.maxMoves(); }
+
+    // Live offsets; callers must not modify them.
+    public byte[] getPositions() { return positions; }
+
+    // Lane offset of a piece.
+    public int offset(int piece) { return positions[piece]; }
+
+    // Check win condition.
+    public boolean isWin() {
+        return layout.isWin(positions);
+    }
+
+    // Generate packed moves into buffer, return count.
+    public int generateMoves(int[] buffer) {
+        return generator.generateLoaded(positions, buffer);
+    }
+
+    // Apply a packed move in place.
+    public void doMove(int move) {
+        int piece = Move.pieceOf(move);
+        int from = positions[piece];
+        slide(piece, from, from + Move.deltaOf(move));
+    }
+
+    // Revert a packed move made by doMove.
+    public void undoMove(int move) {
+        int piece = Move.pieceOf(move);
+        int to = positions[piece];
+        slide(piece, to, to - Move.deltaOf(move));
+    }
+
+    // Hash after a move, without making it.
+    public long hashAfter(int move) {
+        int piece = Move.pieceOf(move);
+        int from = positions[piece];
+        return hash ^ layout.zobrist(piece, from) ^ layout.zobrist(piece, from + Move.deltaOf(move));
+    }
+
+    private void slide(int piece, int from, int to) {
+        positions[piece] = (byte) to;
+        hash ^= layout.zobrist(piece, from) ^ layout.zobrist(piece, to);
+        generator.shift(piece, from, to);
+    }
+}
\ No newline at end of file
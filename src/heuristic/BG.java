@@ -0,0 +1,151 @@
+package heuristic;
+
+import core.Layout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Blocker Graph heuristic.
+ * Counts distinct pieces that must move, following blockers of blockers.
+ */
+public class BG extends Heuristic {
+    public static final int DEFAULT_DEPTH = 3;
+    private static final int CACHE_BITS = 16;
+    private static final int CACHE_MASK = (1 << CACHE_BITS) - 1;
+    private static final long TAG_MASK = ~0xFFFFL;
+    private static final int DEAD_END = Integer.MAX_VALUE;
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int depth;
+    private final long[] cache = new long[1 << CACHE_BITS]; // Hash tag | (h + 1), 0 = empty
+    private volatile Layout cached; // Layout the cache entries belong to
+    private final BP fallback = new BP();
+
+    public BG() {
+        this(DEFAULT_DEPTH);
+    }
+
+    // Depth 1 counts direct blockers only.
+    public BG(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be positive: " + depth);
+        this.depth = depth;
+    }
+
+    @Override
+    public int evaluate(Layout layout, byte[] positions) {
+        int primary = layout.getPrimaryIndex();
+        if (primary == -1) return Integer.MAX_VALUE;
+        if (layout.getPieceCount() > Long.SIZE) return fallback.evaluate(layout, positions);
+
+        if (layout != cached) reset(layout);
+        long key = layout.hash(positions);
+        int slot = (int) key & CACHE_MASK;
+        long entry = (long) ENTRY.getOpaque(cache, slot); // Whole entries, so tag and value match
+        if (entry != 0 && (entry & TAG_MASK) == (key & TAG_MASK)) {
+            int stored = (int) (entry & 0xFFFF);
+            return stored == 0xFFFF ? DEAD_END : stored - 1;
+        }
+
+        int h = estimate(layout, positions, primary);
+        ENTRY.setOpaque(cache, slot, (key & TAG_MASK) | (h == DEAD_END ? 0xFFFF : Math.min(h + 1, 0xFFFE)));
+        return h;
+    }
+
+    // Empty the cache for another puzzle, whose hashes would collide with these.
+    private synchronized void reset(Layout layout) {
+        if (layout == cached) return;
+        Arrays.fill(cache, 0L);
+        cached = layout;
+    }
+
+    // Primary move plus its blockers, plus the costliest chain below one blocker.
+    private int estimate(Layout layout, byte[] positions, int primary) {
+        int offset = positions[primary];
+        if (layout.isWinningOffset(offset)) return 0;
+        int size = layout.getSize(primary);
+        int from, to;
+        if (offset < layout.getWinMin()) {
+            from = offset + size;
+            to = Math.min(layout.getWinMin() + size, layout.laneLength(primary)) - 1;
+        } else {
+            from = Math.max(layout.getWinMax(), 0);
+            to = offset - 1;
+        }
+
+        long blockers = occupants(layout, positions, primary, from, to);
+        long excluded = blockers | (1L << primary);
+        int deepest = 0;
+        for (long b = blockers; b != 0; b &= b - 1) {
+            int blocker = Long.numberOfTrailingZeros(b);
+            int cost = clear(layout, positions, blocker, primary, from, to, depth - 1, excluded);
+            if (cost == DEAD_END) return DEAD_END;
+            deepest = Math.max(deepest, cost);
+        }
+        return 1 + Long.bitCount(blockers) + deepest;
+    }
+
+    // Fewest extra pieces to move so a piece leaves cells [from, to] of another piece's lane.
+    private int clear(Layout layout, byte[] positions, int piece, int lanePiece, int from, int to,
+                      int levels, long excluded) {
+        if (levels <= 0) return 0;
+        if (layout.isHorizontal(piece) != layout.isHorizontal(lanePiece)) {
+            from = to = layout.getLane(lanePiece); // Crossing cell in the piece's own lane
+        }
+
+        int size = layout.getSize(piece);
+        int start = positions[piece];
+        int end = start + size - 1;
+        int length = layout.laneLength(piece);
+        int best = DEAD_END;
+
+        int low = from - size;
+        if (low >= (layout.hasExitLow(piece) ? -1 : 0)) {
+            best = Math.min(best, side(layout, positions, piece, Math.max(low, 0), start - 1, levels, excluded));
+        }
+        int high = to + 1;
+        if (high <= length - size + (layout.hasExitHigh(piece) ? 1 : 0)) {
+            best = Math.min(best, side(layout, positions, piece, end + 1, Math.min(high + size, length) - 1, levels, excluded));
+        }
+        return best;
+    }
+
+    // Cost of clearing cells [from, to] of a piece's lane; max over uncounted occupants.
+    private int side(Layout layout, byte[] positions, int piece, int from, int to, int levels, long excluded) {
+        long fresh = occupants(layout, positions, piece, from, to) & ~excluded;
+        long next = excluded | fresh | (1L << piece);
+        int deepest = 0;
+        for (long b = fresh; b != 0; b &= b - 1) {
+            int occupant = Long.numberOfTrailingZeros(b);
+            int cost = clear(layout, positions, occupant, piece, from, to, levels - 1, next);
+            if (cost == DEAD_END) return DEAD_END;
+            deepest = Math.max(deepest, cost);
+        }
+        return Long.bitCount(fresh) + deepest;
+    }
+
+    // Pieces other than the given one covering cells [from, to] of its lane.
+    private static long occupants(Layout layout, byte[] positions, int piece, int from, int to) {
+        long mask = 0L;
+        if (from > to) return mask;
+        boolean horizontal = layout.isHorizontal(piece);
+        int lane = layout.getLane(piece);
+        for (int i = 0; i < layout.getPieceCount(); i++) {
+            if (i == piece) continue;
+            int start = positions[i];
+            int end = start + layout.getSize(i) - 1;
+            if (layout.isHorizontal(i) == horizontal) {
+                if (layout.getLane(i) == lane && start <= to && end >= from) mask |= 1L << i;
+            } else {
+                int cross = layout.getLane(i);
+                if (cross >= from && cross <= to && start <= lane && lane <= end) mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public String getName() {
+        return "Blocker Graph";
+    }
+}
\ No newline at end of file
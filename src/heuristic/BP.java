@@ -1,8 +1,6 @@
 package heuristic;
 
-import core.Board;
-import core.GameState;
-import core.Piece;
+import core.Layout;
 
 /**
  * Blocking Pieces heuristic.
@@ -11,50 +9,69 @@ import core.Piece;
 public class BP extends Heuristic {
     
     @Override
-    public int evaluate(GameState state) {
-        Board board = state.getBoard();
-        Piece primary = board.getPrimaryPiece();
-        char[][] grid = board.getGrid(); 
+    public int evaluate(Layout layout, byte[] positions) {
+        int primary = layout.getPrimaryIndex();
         
-        if (primary == null) return Integer.MAX_VALUE;
+        if (primary == -1) return Integer.MAX_VALUE;
 
-        int blockingCount = 0;
-        int exitR = board.getExitRow();
-        int exitC = board.getExitCol();
+        int exitR = layout.getExitRow();
+        int exitC = layout.getExitCol();
+        int offset = positions[primary];
+        int size = layout.getSize(primary);
+        int lane = layout.getLane(primary);
         
-        if (primary.isHorizontal()) {
-            int r = primary.getRow();
-            if (exitC >= primary.getCol() + primary.getSize() || exitC == board.getCols()) {
-                for (int c = primary.getCol() + primary.getSize(); c < board.getCols(); c++) {
-                    if (c == exitC && r == exitR) break;
-                    if (grid[r][c] != '.') blockingCount++;
-                }
+        if (layout.isHorizontal(primary)) {
+            int cols = layout.getCols();
+            if (exitC >= offset + size || exitC == cols) {
+                int end = (lane == exitR && exitC >= offset + size && exitC < cols) ? exitC - 1 : cols - 1;
+                return countCells(layout, positions, true, lane, offset + size, end);
             } 
         
-            else if (exitC < primary.getCol() || exitC == -1) {
-                for (int c = primary.getCol() - 1; c >= 0; c--) {
-                    if (c == exitC && r == exitR) break; 
-                    if (grid[r][c] != '.') blockingCount++;
-                }
+            else if (exitC < offset || exitC == -1) {
+                int start = (lane == exitR && exitC >= 0 && exitC < offset) ? exitC + 1 : 0;
+                return countCells(layout, positions, true, lane, start, offset - 1);
             }
         } else { 
-            int c = primary.getCol();
+            int rows = layout.getRows();
            
-            if (exitR >= primary.getRow() + primary.getSize() || exitR == board.getRows()) {
-                for (int r = primary.getRow() + primary.getSize(); r < board.getRows(); r++) {
-                    if (r == exitR && c == exitC) break;
-                    if (grid[r][c] != '.') blockingCount++;
-                }
+            if (exitR >= offset + size || exitR == rows) {
+                int end = (lane == exitC && exitR >= offset + size && exitR < rows) ? exitR - 1 : rows - 1;
+                return countCells(layout, positions, false, lane, offset + size, end);
             }
            
-            else if (exitR < primary.getRow() || exitR == -1) {
-                for (int r = primary.getRow() - 1; r >= 0; r--) {
-                    if (r == exitR && c == exitC) break;
-                    if (grid[r][c] != '.') blockingCount++;
-                }
+            else if (exitR < offset || exitR == -1) {
+                int start = (lane == exitC && exitR >= 0 && exitR < offset) ? exitR + 1 : 0;
+                return countCells(layout, positions, false, lane, start, offset - 1);
             }
         }
-        return blockingCount;
+        return 0;
+    }
+
+    // Moves off the primary lane keep the count.
+    @Override
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        if (layout.getPrimaryIndex() == -1 || touchesPrimaryLane(layout, positions, move)) {
+            return evaluate(layout, positions);
+        }
+        return parentH;
+    }
+
+    // Count occupied cells of a lane segment.
+    static int countCells(Layout layout, byte[] positions, boolean horizontal, int lane, int from, int to) {
+        int count = 0;
+        if (from > to) return 0;
+        for (int i = 0; i < layout.getPieceCount(); i++) {
+            int start = positions[i];
+            int end = start + layout.getSize(i) - 1;
+            if (layout.isHorizontal(i) == horizontal) {
+                if (layout.getLane(i) != lane) continue;
+                count += Math.max(0, Math.min(end, to) - Math.max(start, from) + 1);
+            } else {
+                int cross = layout.getLane(i);
+                if (cross >= from && cross <= to && start <= lane && lane <= end) count++;
+            }
+        }
+        return count;
     }
     
     @Override
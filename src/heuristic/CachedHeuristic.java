@@ -0,0 +1,141 @@
+package heuristic;
+
+import core.Layout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizing heuristic decorator.
+ * Set-associative cache keyed by state hash with CLOCK eviction, emptied when the puzzle layout changes.
+ * Shareable by threads solving one puzzle: entries are read and written whole, only the eviction bits race.
+ */
+public class CachedHeuristic extends Heuristic {
+    private static final int WAYS = 4;
+    private static final int ENTRY_BYTES = 9;
+    private static final long TAG_MASK = ~0xFFFFL;
+    private static final int DEAD_END = 0xFFFF;
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Heuristic inner;
+    private final long[] entries; // Hash tag | (h + 1), 0 = empty
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Layout layout; // Layout the entries belong to
+    private long signature;
+
+    public CachedHeuristic(Heuristic inner, int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Cache size must be positive: " + megabytes);
+        this.inner = inner;
+        long sets = Math.max(1L, ((long) megabytes << 20) / (ENTRY_BYTES * WAYS));
+        int setCount = Integer.highestOneBit((int) Math.min(sets, 1 << 26));
+        this.entries = new long[setCount * WAYS];
+        this.referenced = new byte[setCount * WAYS];
+        this.hands = new byte[setCount];
+        this.setMask = setCount - 1;
+    }
+
+    @Override
+    public int evaluate(Layout layout, byte[] positions) {
+        if (layout != this.layout) switchTo(layout);
+        long key = layout.hash(positions);
+        int cached = lookup(key);
+        if (cached != -1) return cached;
+        int h = inner.evaluate(layout, positions);
+        store(key, h);
+        return h;
+    }
+
+    @Override
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        if (layout != this.layout) switchTo(layout);
+        long key = layout.hash(positions);
+        int cached = lookup(key);
+        if (cached != -1) return cached;
+        int h = inner.evaluate(parentH, layout, positions, move);
+        store(key, h);
+        return h;
+    }
+
+    public Heuristic getInner() { return inner; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    // Fraction of lookups answered from the cache.
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Drop all entries and counters.
+    public synchronized void clear() {
+        Arrays.fill(entries, 0L);
+        Arrays.fill(referenced, (byte) 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    // Keep entries for an equal layout; another puzzle's hashes would collide with them.
+    private synchronized void switchTo(Layout next) {
+        if (next == layout) return;
+        long nextSignature = next.signature();
+        if (layout == null || nextSignature != signature) {
+            Arrays.fill(entries, 0L);
+            Arrays.fill(referenced, (byte) 0);
+        }
+        signature = nextSignature;
+        layout = next;
+    }
+
+    @Override
+    public String getName() {
+        return inner.getName();
+    }
+
+    // Cached value, or -1 on a miss.
+    private int lookup(long key) {
+        int base = setOf(key) * WAYS;
+        long tag = key & TAG_MASK;
+        for (int way = base; way < base + WAYS; way++) {
+            long entry = (long) ENTRY.getOpaque(entries, way);
+            if (entry != 0 && (entry & TAG_MASK) == tag) {
+                referenced[way] = 1;
+                hits.increment();
+                int stored = (int) (entry & 0xFFFF);
+                return stored == DEAD_END ? Integer.MAX_VALUE : stored - 1;
+            }
+        }
+        misses.increment();
+        return -1;
+    }
+
+    // Insert into a free way, or the first unreferenced way under the clock hand.
+    private void store(long key, int h) {
+        int set = setOf(key);
+        int base = set * WAYS;
+        long entry = (key & TAG_MASK) | (h == Integer.MAX_VALUE ? DEAD_END : Math.min(h + 1, DEAD_END - 1));
+        for (int way = base; way < base + WAYS; way++) {
+            if ((long) ENTRY.getOpaque(entries, way) == 0) {
+                ENTRY.setOpaque(entries, way, entry);
+                return;
+            }
+        }
+        int hand = hands[set];
+        while (referenced[base + hand] != 0) {
+            referenced[base + hand] = 0; // Second chance
+            hand = (hand + 1) % WAYS;
+        }
+        ENTRY.setOpaque(entries, base + hand, entry);
+        referenced[base + hand] = 0;
+        hands[set] = (byte) ((hand + 1) % WAYS);
+    }
+
+    private int setOf(long key) {
+        return (int) key & setMask;
+    }
+}
\ No newline at end of file
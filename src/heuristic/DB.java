@@ -1,6 +1,6 @@
 package heuristic;
 
-import core.GameState;
+import core.Layout;
 
 /**
  * Distance + Blocking heuristic.
@@ -16,8 +16,17 @@ public class DB extends Heuristic {
     }
     
     @Override
-    public int evaluate(GameState state) {
-        return mdHeuristic.evaluate(state) + bpHeuristic.evaluate(state);
+    public int evaluate(Layout layout, byte[] positions) {
+        return mdHeuristic.evaluate(layout, positions) + bpHeuristic.evaluate(layout, positions);
+    }
+    
+    // Both parts are unchanged by moves off the primary lane.
+    @Override
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        if (layout.getPrimaryIndex() == -1 || touchesPrimaryLane(layout, positions, move)) {
+            return evaluate(layout, positions);
+        }
+        return parentH;
     }
     
     @Override
@@ -1,12 +1,48 @@
 package heuristic;
 
 import core.GameState;
+import core.Layout;
+import core.Move;
 
 /**
  * Abstract base for heuristics.
  */
 public abstract class Heuristic {
-    public abstract int evaluate(GameState state);
+    public int evaluate(GameState state) {
+        return evaluate(state.getLayout(), state.getPositions());
+    }
+
+    // Evaluate packed positions.
+    public abstract int evaluate(Layout layout, byte[] positions);
+
+    // Evaluate a child from its parent's value and the move leading to it.
+    public int evaluate(int parentH, GameState parent, Move move) {
+        Layout layout = parent.getLayout();
+        int index = layout.indexOf(move.getPiece().getId());
+        if (index == -1) return parentH;
+        int packed = Move.pack(index, move.getDirection(), move.getSteps());
+        byte[] positions = parent.getPositions().clone();
+        positions[index] = (byte) (positions[index] + Move.deltaOf(packed));
+        return evaluate(parentH, layout, positions, packed);
+    }
+
+    // Evaluate child positions reached by a packed move; full evaluation unless overridden.
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        return evaluate(layout, positions);
+    }
     
     public abstract String getName();
+
+    // Whether a move of a non-primary piece can change cells of the primary lane.
+    protected static boolean touchesPrimaryLane(Layout layout, byte[] positions, int move) {
+        int primary = layout.getPrimaryIndex();
+        int piece = Move.pieceOf(move);
+        if (piece == primary) return true;
+        int lane = layout.getLane(primary);
+        if (layout.isHorizontal(piece) == layout.isHorizontal(primary)) return layout.getLane(piece) == lane;
+        int size = layout.getSize(piece);
+        int after = positions[piece];
+        int before = after - Move.deltaOf(move);
+        return (after <= lane && lane < after + size) || (before <= lane && lane < before + size);
+    }
 }
\ No newline at end of file
@@ -1,8 +1,7 @@
 package heuristic;
 
-import core.Board;
-import core.GameState;
-import core.Piece;
+import core.Layout;
+import core.Move;
 
 /**
  * Manhattan Distance heuristic.
@@ -11,36 +10,44 @@ import core.Piece;
 public class MD extends Heuristic {
     
     @Override
-    public int evaluate(GameState state) {
-        Board board = state.getBoard();
-        Piece primary = board.getPrimaryPiece();
+    public int evaluate(Layout layout, byte[] positions) {
+        int primary = layout.getPrimaryIndex();
         
-        if (primary == null) return Integer.MAX_VALUE; 
+        if (primary == -1) return Integer.MAX_VALUE; 
         
-        int exitR = board.getExitRow();
-        int exitC = board.getExitCol();
+        int exitR = layout.getExitRow();
+        int exitC = layout.getExitCol();
+        int offset = positions[primary];
+        int size = layout.getSize(primary);
 
-        if (primary.isHorizontal()) {
-            int targetCol = (exitC == board.getCols() || exitC == -1) ? exitC : exitC;
-            if (targetCol == board.getCols()) { 
-                 return Math.max(0, targetCol - (primary.getCol() + primary.getSize()));
+        if (layout.isHorizontal(primary)) {
+            int targetCol = exitC;
+            if (targetCol == layout.getCols()) { 
+                 return Math.max(0, targetCol - (offset + size));
             } else if (targetCol == -1) { 
-                 return Math.max(0, primary.getCol() - targetCol);
+                 return Math.max(0, offset - targetCol);
             } else { 
-                 return Math.abs(primary.getCol() - targetCol);
+                 return Math.abs(offset - targetCol);
             }
         } else {
-            int targetRow = (exitR == board.getRows() || exitR == -1) ? exitR : exitR;
-            if (targetRow == board.getRows()) { 
-                return Math.max(0, targetRow - (primary.getRow() + primary.getSize()));
+            int targetRow = exitR;
+            if (targetRow == layout.getRows()) { 
+                return Math.max(0, targetRow - (offset + size));
             } else if (targetRow == -1) {
-                return Math.max(0, primary.getRow() - targetRow);
+                return Math.max(0, offset - targetRow);
             } else { 
-                return Math.abs(primary.getRow() - targetRow);
+                return Math.abs(offset - targetRow);
             }
         }
     }
     
+    // Only the primary piece matters.
+    @Override
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        if (Move.pieceOf(move) != layout.getPrimaryIndex()) return parentH;
+        return evaluate(layout, positions);
+    }
+    
     @Override
     public String getName() {
         return "Manhattan Distance";
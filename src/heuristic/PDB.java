@@ -0,0 +1,281 @@
+package heuristic;
+
+import core.Layout;
+import core.Move;
+import core.MoveGenerator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pattern Database heuristic.
+ * Exact distances of the primary piece plus a subset of pieces, cached on disk.
+ */
+public class PDB extends Heuristic {
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 22;
+    private static final int MAGIC = 0x52485044; // "RHPD"
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final int UNKNOWN = 0xFF;
+    private static final int MAX_DISTANCE = 0xFE;
+
+    private final Path directory;
+    private final int maxEntries;
+    private final char[] patternIds; // null = chosen from the layout
+    private volatile Table table;
+
+    public PDB() {
+        this(defaultDirectory(), DEFAULT_MAX_ENTRIES, (char[]) null);
+    }
+
+    // Explicit pattern; the primary piece is always included.
+    public PDB(char... patternIds) {
+        this(defaultDirectory(), DEFAULT_MAX_ENTRIES, patternIds);
+    }
+
+    public PDB(Path directory, int maxEntries, char... patternIds) {
+        if (maxEntries < 1) throw new IllegalArgumentException("Entry limit must be positive: " + maxEntries);
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.patternIds = patternIds == null ? null : patternIds.clone();
+    }
+
+    @Override
+    public int evaluate(Layout layout, byte[] positions) {
+        if (layout.getPrimaryIndex() == -1) return Integer.MAX_VALUE;
+        Table t = table;
+        if (t == null || t.layout != layout) t = tableFor(layout);
+
+        int index = 0;
+        for (int j = 0; j < t.pieces.length; j++) index += (positions[t.pieces[j]] + 1) * t.strides[j];
+        int distance = t.data.get(HEADER + index) & 0xFF;
+        return distance == UNKNOWN ? Integer.MAX_VALUE : distance; // Unreachable even when relaxed
+    }
+
+    // Moves of pieces outside the pattern keep the distance.
+    @Override
+    public int evaluate(int parentH, Layout layout, byte[] positions, int move) {
+        Table t = table;
+        if (t != null && t.layout == layout && !t.inPattern[Move.pieceOf(move)]) return parentH;
+        return evaluate(layout, positions);
+    }
+
+    // Piece indices of the pattern in use, primary first.
+    public int[] getPattern(Layout layout) {
+        Table t = table;
+        if (t == null || t.layout != layout) t = tableFor(layout);
+        return t.pieces.clone();
+    }
+
+    @Override
+    public String getName() {
+        return "Pattern Database";
+    }
+
+    // Load or build the table of a layout once.
+    private synchronized Table tableFor(Layout layout) {
+        Table t = table;
+        if (t != null && t.layout == layout) return t;
+
+        int[] pieces = choosePattern(layout);
+        int[] radix = new int[pieces.length];
+        int[] strides = new int[pieces.length];
+        int entries = 1;
+        for (int j = 0; j < pieces.length; j++) {
+            radix[j] = layout.laneLength(pieces[j]) - layout.getSize(pieces[j]) + 3;
+            strides[j] = entries;
+            entries *= radix[j];
+        }
+        long signature = signature(layout, pieces);
+        Path file = directory.resolve(String.format("%016x.pdb", signature));
+
+        ByteBuffer data = map(file, signature, entries);
+        if (data == null) {
+            byte[] bytes = build(layout, pieces, radix, strides, entries);
+            ByteBuffer.wrap(bytes).putInt(MAGIC).putInt(VERSION).putLong(signature).putInt(entries).putInt(pieces.length);
+            data = store(file, bytes, signature, entries);
+        }
+        t = new Table(layout, pieces, strides, data);
+        table = t;
+        return t;
+    }
+
+    // Primary piece first, then the most likely blockers that fit the entry limit.
+    private int[] choosePattern(Layout layout) {
+        int primary = layout.getPrimaryIndex();
+        List<Integer> candidates = new ArrayList<>();
+        if (patternIds != null) {
+            for (char id : patternIds) {
+                int index = layout.indexOf(id);
+                if (index != -1 && index != primary && !candidates.contains(index)) candidates.add(index);
+            }
+        } else {
+            for (int i = 0; i < layout.getPieceCount(); i++) if (i != primary) candidates.add(i);
+            candidates.sort(Comparator.comparingInt(i -> blockingRank(layout, i)));
+        }
+
+        List<Integer> pattern = new ArrayList<>();
+        pattern.add(primary);
+        long entries = layout.laneLength(primary) - layout.getSize(primary) + 3;
+        for (int i : candidates) {
+            long next = entries * (layout.laneLength(i) - layout.getSize(i) + 3);
+            if (next > maxEntries) {
+                if (patternIds != null) throw new IllegalArgumentException("Pattern exceeds " + maxEntries + " entries.");
+                continue;
+            }
+            pattern.add(i);
+            entries = next;
+        }
+        return pattern.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Lower rank for pieces closer to the primary piece's way out.
+    private static int blockingRank(Layout layout, int i) {
+        int primary = layout.getPrimaryIndex();
+        boolean h = layout.isHorizontal(primary);
+        int exit = h ? layout.getExitCol() : layout.getExitRow();
+        if (layout.isHorizontal(i) == h) {
+            return layout.getLane(i) == layout.getLane(primary) ? 0 : 1000 + Math.abs(layout.getLane(i) - layout.getLane(primary));
+        }
+        return 1 + Math.abs(layout.getLane(i) - exit);
+    }
+
+    // Breadth-first search from every abstract goal.
+    private static byte[] build(Layout layout, int[] pieces, int[] radix, int[] strides, int entries) {
+        byte[] bytes = new byte[HEADER + entries];
+        Arrays.fill(bytes, HEADER, bytes.length, (byte) UNKNOWN);
+        int[] queue = new int[entries];
+        int head = 0, tail = 0;
+        MoveGenerator generator = new MoveGenerator(layout);
+        int[] offsets = new int[pieces.length];
+
+        for (int index = 0; index < entries; index++) {
+            int primaryOffset = index % radix[0] - 1;
+            if (!layout.isWinningOffset(primaryOffset)) continue;
+            if (!place(layout, generator, pieces, radix, index, offsets)) continue;
+            bytes[HEADER + index] = 0;
+            queue[tail++] = index;
+        }
+
+        // Relaxed moves: any slide length, non-pattern pieces removed.
+        while (head < tail) {
+            int index = queue[head++];
+            place(layout, generator, pieces, radix, index, offsets);
+            int next = Math.min((bytes[HEADER + index] & 0xFF) + 1, MAX_DISTANCE);
+            for (int j = 0; j < pieces.length; j++) {
+                int p = pieces[j];
+                int x = offsets[j];
+                int low = generator.slideLow(p, x);
+                int high = generator.slideHigh(p, x);
+                for (int s = 1; s <= low; s++) tail = visit(bytes, queue, tail, index - s * strides[j], next);
+                for (int s = 1; s <= high; s++) tail = visit(bytes, queue, tail, index + s * strides[j], next);
+                if (x == 0 && layout.hasExitLow(p)) tail = visit(bytes, queue, tail, index - strides[j], next);
+                if (x + layout.getSize(p) == layout.laneLength(p) && layout.hasExitHigh(p)) {
+                    tail = visit(bytes, queue, tail, index + strides[j], next);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static int visit(byte[] bytes, int[] queue, int tail, int index, int distance) {
+        if ((bytes[HEADER + index] & 0xFF) != UNKNOWN) return tail;
+        bytes[HEADER + index] = (byte) distance;
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    // Decode an index into offsets and masks; false if the placement is illegal.
+    private static boolean place(Layout layout, MoveGenerator generator, int[] pieces, int[] radix, int index, int[] offsets) {
+        generator.clear();
+        for (int j = 0; j < pieces.length; j++) {
+            int p = pieces[j];
+            int offset = index % radix[j] - 1;
+            index /= radix[j];
+            if (offset == -1 && !layout.hasExitLow(p)) return false;
+            if (offset == radix[j] - 2 && !layout.hasExitHigh(p)) return false;
+            if (!generator.fits(p, offset)) return false;
+            generator.place(p, offset);
+            offsets[j] = offset;
+        }
+        return true;
+    }
+
+    // Identity of the abstraction: board frame and the pattern pieces' geometry.
+    private static long signature(Layout layout, int[] pieces) {
+        long h = 0xCBF29CE484222325L;
+        int[] fields = {VERSION, layout.getRows(), layout.getCols(), layout.getExitRow(), layout.getExitCol()};
+        for (int v : fields) h = (h ^ v) * 0x100000001B3L;
+        for (int p : pieces) {
+            h = (h ^ (layout.isHorizontal(p) ? 1 : 0)) * 0x100000001B3L;
+            h = (h ^ layout.getLane(p)) * 0x100000001B3L;
+            h = (h ^ layout.getSize(p)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // Map a stored table read-only, or null if absent or stale.
+    private static MappedByteBuffer map(Path file, long signature, int entries) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER + (long) entries) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(8) != signature || buffer.getInt(16) != entries) return null;
+            return buffer;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Persist a built table, falling back to the heap copy on I/O errors.
+    private static ByteBuffer store(Path file, byte[] bytes, long signature, int entries) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "pdb", ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            MappedByteBuffer mapped = map(file, signature, entries);
+            if (mapped != null) return mapped;
+        } catch (IOException e) {
+            System.err.println("Pattern database not saved: " + e.getMessage());
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static Path defaultDirectory() {
+        String configured = System.getProperty("pdb.dir");
+        if (configured != null) return Paths.get(configured);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "rushhour-pdb");
+    }
+
+    /**
+     * Loaded table of one layout.
+     */
+    private static final class Table {
+        final Layout layout;
+        final int[] pieces;
+        final int[] strides;
+        final ByteBuffer data;
+        final boolean[] inPattern;
+
+        Table(Layout layout, int[] pieces, int[] strides, ByteBuffer data) {
+            this.layout = layout;
+            this.pieces = pieces;
+            this.strides = strides;
+            this.data = data;
+            this.inPattern = new boolean[layout.getPieceCount()];
+            for (int p : pieces) inPattern[p] = true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,353 @@
+package ui;
+
+import algorithm.PathFinder;
+import algorithm.SearchBudget;
+import algorithm.Solvers;
+import core.Board;
+import core.Corpus;
+import core.FileParser;
+import core.GameState;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Non-interactive batch solver.
+ * Streams puzzles from files or stdin, solves each combination on a thread pool, writes one row per result.
+ */
+public class Batch {
+    private static final String USAGE = String.join("\n",
+            "Usage: --batch <directory|glob|file|-> [options]   (- reads standard input)",
+            "  --combo as:bp,idas:md,ucs   algorithm[:heuristic][:option] list (default as:bp)",
+            "                              option tt=MB gives idas a transposition table, as in idas:bp:tt=64",
+            "  --threads N                 puzzles solved at once (default: cores; peak_heap_bytes needs 1)",
+            "  --solver-threads N          workers per parallel solver (default 1)",
+            "  --time-limit MS             stop each search after MS milliseconds",
+            "  --max-nodes N               stop each search after N expansions",
+            "  --max-memory-mb N           stop searches while the heap holds more than N MB",
+            "  --format csv|jsonl          output format (default csv)",
+            "  --out FILE                  output file (default stdout)");
+    private static final String[] COLUMNS = {
+        "file", "puzzle", "algorithm", "heuristic", "status", "moves", "nodes", "wall_ms", "allocated_bytes", "peak_heap_bytes"
+    };
+
+    private final List<Path> files;
+    private final List<String[]> combos;
+    private final int threads;
+    private final int solverThreads;
+    private final SearchBudget budget;
+    private final boolean json;
+    private final PrintWriter out;
+
+    private Batch(List<Path> files, List<String[]> combos, int threads, int solverThreads, SearchBudget budget,
+                  boolean json, PrintWriter out) {
+        this.files = files;
+        this.combos = combos;
+        this.threads = threads;
+        this.solverThreads = solverThreads;
+        this.budget = budget;
+        this.json = json;
+        this.out = out;
+    }
+
+    // Entry for --pack: convert text puzzles (or - for stdin) into one corpus file.
+    public static int pack(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: --pack <output" + Corpus.EXTENSION + "> <input.txt|->...");
+            return 2;
+        }
+        List<Board> boards = new ArrayList<>();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                try (FileParser parser = args[i].equals("-") ? FileParser.stdin() : new FileParser(args[i])) {
+                    for (Board board : parser) boards.add(board);
+                }
+            }
+            int written = Corpus.write(boards, Paths.get(args[0]));
+            System.err.println("Packed " + written + " puzzles into " + args[0]);
+            return 0;
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            String message = e instanceof UncheckedIOException u ? u.getCause().getMessage() : e.getMessage();
+            System.err.println("Error: " + message);
+            return 1;
+        }
+    }
+
+    // Entry for --batch; args are the arguments after the flag.
+    public static int run(String[] args) {
+        String source = null;
+        String comboList = "as:bp";
+        String format = "csv";
+        String output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int solverThreads = 1;
+        long timeLimit = 0;
+        long maxNodes = 0;
+        long maxMemoryMb = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--combo" -> comboList = args[++i];
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--solver-threads" -> solverThreads = Integer.parseInt(args[++i]);
+                    case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                    case "--max-nodes" -> maxNodes = Long.parseLong(args[++i]);
+                    case "--max-memory-mb" -> maxMemoryMb = Long.parseLong(args[++i]);
+                    case "--format" -> format = args[++i].toLowerCase(Locale.ROOT);
+                    case "--out" -> output = args[++i];
+                    default -> {
+                        if (source != null || args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        source = args[i];
+                    }
+                }
+            }
+            if (source == null) throw new IllegalArgumentException("Missing puzzle directory or glob.");
+            if (!format.equals("csv") && !format.equals("jsonl")) throw new IllegalArgumentException("Unknown format: " + format);
+            if (threads < 1 || solverThreads < 1) throw new IllegalArgumentException("Thread counts must be positive.");
+            SearchBudget budget = new SearchBudget(timeLimit, maxNodes, maxMemoryMb << 20);
+            List<String[]> combos = parseCombos(comboList);
+            List<Path> files = source.equals("-") ? null : findPuzzles(source); // null = standard input
+
+            Writer writer = output == null
+                    ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                    : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+            try (PrintWriter out = new PrintWriter(new BufferedWriter(writer))) {
+                new Batch(files, combos, threads, solverThreads, budget, format.equals("jsonl"), out).solveAll();
+            }
+            return 0;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing option value." : e.getMessage()));
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("File Error: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    // Stream puzzles into the pool, writing rows as they finish.
+    private void solveAll() throws InterruptedException {
+        if (!json) out.println(String.join(",", COLUMNS));
+        out.flush();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 4); // Bounds parsed puzzles held in memory
+        try {
+            if (files == null) {
+                submitAll(pool, inFlight, "-", FileParser.stdin());
+            } else {
+                for (Path file : files) {
+                    try {
+                        submitAll(pool, inFlight, file.toString(), file.toString().endsWith(Corpus.EXTENSION)
+                                ? Corpus.open(file) : new FileParser(file.toString()));
+                    } catch (IOException e) {
+                        write(new Object[]{file.toString(), 0, "", "", "error: " + e.getMessage(), -1, 0, 0L, -1L, -1L});
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+    }
+
+    // Submit every puzzle of one text or corpus input with every combination.
+    private <T extends Iterable<Board> & Closeable> void submitAll(ExecutorService pool, Semaphore inFlight, String name,
+                                                                  T parser) throws InterruptedException {
+        int puzzle = 0;
+        try (parser) {
+            for (Board board : parser) {
+                puzzle++;
+                for (String[] combo : combos) {
+                    int index = puzzle;
+                    Board copy = board.copy();
+                    inFlight.acquire();
+                    pool.execute(() -> {
+                        try {
+                            write(solve(name, index, copy, combo[0], combo[1]));
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            String message = e instanceof UncheckedIOException u ? u.getCause().getMessage() : e.getMessage();
+            write(new Object[]{name, puzzle + 1, "", "", "error: " + message, -1, 0, 0L, -1L, -1L});
+        }
+    }
+
+    // Solve one puzzle with one combination.
+    private Object[] solve(String file, int puzzle, Board board, String algorithm, String heuristic) {
+        String status;
+        int moves = -1;
+        int nodes = 0;
+        boolean measureHeap = threads == 1; // Concurrent puzzles share the heap peak
+        if (measureHeap) {
+            System.gc(); // Start from live data, not earlier rows' garbage
+            resetPeakHeap();
+        }
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        try {
+            PathFinder solver = Solvers.create(algorithm, heuristic == null ? null : Solvers.heuristic(heuristic), solverThreads);
+            solver.setBudget(budget);
+            GameState solution = solver.findPath(new GameState(board));
+            nodes = solver.getNodesVisited();
+            if (solution != null) moves = solution.getSolutionPath().size() - 1;
+            status = solver.getOutcome().toString(); // solved, unsolvable, or the limit that stopped it
+        } catch (RuntimeException e) {
+            status = "error: " + e.getMessage();
+        } catch (OutOfMemoryError e) {
+            status = "error: out of memory";
+        }
+        long wallMs = (System.nanoTime() - start) / 1_000_000;
+        long allocatedAfter = allocatedBytes();
+        // Worker threads of the parallel solvers allocate outside this thread's counter.
+        long allocated = Solvers.isParallel(algorithm) || allocatedBefore < 0 || allocatedAfter < 0
+                ? -1 : allocatedAfter - allocatedBefore;
+        return new Object[]{file, puzzle, algorithm, heuristic == null ? "" : heuristic, status,
+            moves, nodes, wallMs, allocated, measureHeap ? peakHeapBytes() : -1};
+    }
+
+    private synchronized void write(Object[] row) {
+        StringBuilder line = new StringBuilder();
+        if (json) line.append('{');
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            if (json) line.append('"').append(COLUMNS[i]).append("\":");
+            if (row[i] instanceof String text) line.append(json ? jsonString(text) : csvField(text));
+            else line.append(row[i]);
+        }
+        if (json) line.append('}');
+        out.println(line);
+        out.flush();
+    }
+
+    // Parse "algorithm[:heuristic][:option]" entries; heuristic algorithms default to bp.
+    // Options stay on the algorithm name, as in idas:tt=64, so rows of each variant are told apart.
+    static List<String[]> parseCombos(String list) {
+        List<String[]> combos = new ArrayList<>();
+        for (String entry : list.split(",")) {
+            String[] parts = entry.trim().toLowerCase(Locale.ROOT).split(":");
+            String algorithm = parts[0];
+            if (!Solvers.ALGORITHMS.contains(algorithm)) throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            String heuristic = null;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].contains("=")) algorithm += ":" + parts[i];
+                else if (heuristic == null) heuristic = parts[i];
+                else throw new IllegalArgumentException("Unexpected combo part: " + parts[i]);
+            }
+            Solvers.create(algorithm, null, 1); // Reject bad options before solving
+            if (Solvers.usesHeuristic(algorithm)) {
+                if (heuristic == null) heuristic = "bp";
+                if (!Solvers.HEURISTICS.contains(heuristic)) throw new IllegalArgumentException("Unknown heuristic: " + heuristic);
+            } else {
+                heuristic = null;
+            }
+            combos.add(new String[]{algorithm, heuristic});
+        }
+        return combos;
+    }
+
+    // Every .txt file of a directory, or files matching a glob such as test/input/*.txt.
+    static List<Path> findPuzzles(String source) throws IOException {
+        Path path = Paths.get(source);
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.list(path)) {
+                files = stream.filter(p -> (p.toString().endsWith(".txt") || p.toString().endsWith(Corpus.EXTENSION)) && Files.isRegularFile(p)).sorted().toList();
+            }
+        } else if (Files.isRegularFile(path)) {
+            files = List.of(path);
+        } else {
+            int wildcard = indexOfWildcard(source);
+            int cut = source.lastIndexOf('/', wildcard) + 1;
+            Path base = Paths.get(cut == 0 ? "." : source.substring(0, cut));
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + source.substring(cut));
+            try (Stream<Path> stream = Files.walk(base)) {
+                files = stream.filter(p -> Files.isRegularFile(p) && matcher.matches(base.relativize(p))).sorted().toList();
+            }
+        }
+        if (files.isEmpty()) throw new IOException("No puzzle files match " + source);
+        return files;
+    }
+
+    private static int indexOfWildcard(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            if ("*?[{".indexOf(glob.charAt(i)) != -1) return i;
+        }
+        return glob.length();
+    }
+
+    // Bytes allocated by the current thread, or -1 if the JVM does not track it.
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Peak heap usage since the last reset.
+    static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    // Reset the peak usage of every heap pool.
+    static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    static String csvField(String text) {
+        if (text.indexOf(',') == -1 && text.indexOf('"') == -1 && text.indexOf('\n') == -1) return text;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    static String jsonString(String text) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,364 @@
+package ui;
+
+import algorithm.PathFinder;
+import algorithm.Solvers;
+import core.Board;
+import core.Corpus;
+import core.FileParser;
+import core.GameState;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Headless macro benchmark over a puzzle corpus.
+ * Runs every combination with warmup and repeated trials, and compares two reports for regressions.
+ */
+public class Benchmark {
+    private static final String USAGE = String.join("\n",
+            "Usage: --bench <directory|glob|file> [options]",
+            "  --combo all|as:bp,idas:md,ucs   combinations (default all)",
+            "                                  option tt=MB gives idas a transposition table, as in idas:bp:tt=64",
+            "  --warmup N                      untimed runs per combination (default 2)",
+            "  --trials N                      timed runs per combination (default 10)",
+            "  --solver-threads N              workers per parallel solver (default: cores)",
+            "  --format csv|jsonl              report format (default csv)",
+            "  --out FILE                      report file (default stdout)",
+            "Usage: --compare <baseline> <candidate> [--threshold PCT]   (default 10)");
+    private static final String[] COLUMNS = {
+        "puzzle", "algorithm", "heuristic", "status", "moves", "expanded", "generated",
+        "trials", "p50_ms", "p99_ms", "mean_ms", "peak_heap_bytes"
+    };
+    private static final double NOISE_MS = 0.1; // Latency changes below this are ignored
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\":(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}]*)");
+
+    // Entry for --bench; args are the arguments after the flag.
+    public static int run(String[] args) {
+        String source = null;
+        String comboList = "all";
+        String format = "csv";
+        String output = null;
+        int warmup = 2;
+        int trials = 10;
+        int solverThreads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--combo" -> comboList = args[++i];
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--trials" -> trials = Integer.parseInt(args[++i]);
+                    case "--solver-threads" -> solverThreads = Integer.parseInt(args[++i]);
+                    case "--format" -> format = args[++i].toLowerCase(Locale.ROOT);
+                    case "--out" -> output = args[++i];
+                    default -> {
+                        if (source != null || args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        source = args[i];
+                    }
+                }
+            }
+            if (source == null) throw new IllegalArgumentException("Missing puzzle directory or glob.");
+            if (!format.equals("csv") && !format.equals("jsonl")) throw new IllegalArgumentException("Unknown format: " + format);
+            if (warmup < 0 || trials < 1 || solverThreads < 1) throw new IllegalArgumentException("Counts must be positive.");
+            List<String[]> combos = comboList.equals("all") ? allCombos() : Batch.parseCombos(comboList);
+            Map<String, Board> puzzles = loadPuzzles(Batch.findPuzzles(source));
+
+            Writer writer = output == null
+                    ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                    : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+            boolean json = format.equals("jsonl");
+            try (PrintWriter out = new PrintWriter(new BufferedWriter(writer))) {
+                if (!json) out.println(String.join(",", COLUMNS));
+                for (Map.Entry<String, Board> puzzle : puzzles.entrySet()) {
+                    for (String[] combo : combos) {
+                        Object[] row = measure(puzzle.getKey(), puzzle.getValue(), combo[0], combo[1], warmup, trials, solverThreads);
+                        out.println(format(row, json));
+                        out.flush();
+                    }
+                }
+            }
+            return 0;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing option value." : e.getMessage()));
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("File Error: " + (e instanceof UncheckedIOException u ? u.getCause().getMessage() : e.getMessage()));
+            return 1;
+        }
+    }
+
+    // Entry for --compare; prints changes and returns 1 if any regression is found.
+    public static int compare(String[] args) {
+        try {
+            if (args.length < 2) throw new IllegalArgumentException("Expected two report files.");
+            double threshold = 10;
+            for (int i = 2; i < args.length; i++) {
+                if (!args[i].equals("--threshold")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                threshold = Double.parseDouble(args[++i]);
+            }
+            Map<String, Map<String, String>> baseline = readReport(Paths.get(args[0]));
+            Map<String, Map<String, String>> candidate = readReport(Paths.get(args[1]));
+
+            int regressions = 0;
+            for (Map.Entry<String, Map<String, String>> entry : candidate.entrySet()) {
+                Map<String, String> before = baseline.get(entry.getKey());
+                if (before == null) {
+                    System.out.println("NEW         " + entry.getKey());
+                    continue;
+                }
+                regressions += compareRows(entry.getKey(), before, entry.getValue(), threshold);
+            }
+            for (String key : baseline.keySet()) {
+                if (!candidate.containsKey(key)) System.out.println("MISSING     " + key);
+            }
+            System.out.println(regressions == 0 ? "No regressions." : regressions + " regression(s).");
+            return regressions == 0 ? 0 : 1;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing option value." : e.getMessage()));
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("File Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    // Warm up, then time repeated runs of one combination on one puzzle.
+    private static Object[] measure(String name, Board board, String algorithm, String heuristic,
+                                    int warmup, int trials, int solverThreads) {
+        String status = "solved";
+        int moves = -1;
+        long expanded = 0;
+        long generated = 0;
+        long[] nanos = new long[trials];
+        long peakHeap = 0;
+        try {
+            for (int i = 0; i < warmup; i++) solve(board, algorithm, heuristic, solverThreads);
+            for (int i = 0; i < trials; i++) {
+                System.gc();
+                Batch.resetPeakHeap();
+                PathFinder solver = Solvers.create(algorithm, heuristic == null ? null : Solvers.heuristic(heuristic), solverThreads);
+                GameState start = new GameState(board.copy());
+                long begin = System.nanoTime();
+                GameState solution = solver.findPath(start);
+                nanos[i] = System.nanoTime() - begin;
+                peakHeap = Math.max(peakHeap, Batch.peakHeapBytes());
+                expanded = solver.getMetrics().getExpanded();
+                generated = solver.getMetrics().getGenerated();
+                if (solution == null) status = solver.getOutcome().toString();
+                else moves = solution.getSolutionPath().size() - 1;
+            }
+        } catch (RuntimeException e) {
+            status = "error: " + e.getMessage();
+            nanos = new long[0];
+        }
+        Arrays.sort(nanos);
+        double mean = nanos.length == 0 ? 0 : Arrays.stream(nanos).average().orElse(0);
+        return new Object[]{name, algorithm, heuristic == null ? "" : heuristic, status, moves, expanded, generated,
+            nanos.length, millis(percentile(nanos, 50)), millis(percentile(nanos, 99)), millis(mean), peakHeap};
+    }
+
+    private static void solve(Board board, String algorithm, String heuristic, int solverThreads) {
+        Solvers.create(algorithm, heuristic == null ? null : Solvers.heuristic(heuristic), solverThreads)
+                .findPath(new GameState(board.copy()));
+    }
+
+    // Flag worse status, longer solutions, more expansions or slower median runs.
+    private static int compareRows(String key, Map<String, String> before, Map<String, String> after, double threshold) {
+        int regressions = 0;
+        boolean solvedBefore = before.get("status").equals("solved");
+        boolean solvedAfter = after.get("status").equals("solved");
+        if (solvedBefore && !solvedAfter) {
+            System.out.println("REGRESSION  " + key + " status " + before.get("status") + " -> " + after.get("status"));
+            return 1;
+        }
+        if (!before.get("status").equals(after.get("status"))) {
+            if (solvedAfter) System.out.println("IMPROVED    " + key + " status " + before.get("status") + " -> solved");
+            return 0; // Counts of a stopped or failed run are not comparable
+        }
+        if (solvedBefore) {
+            long movesBefore = Long.parseLong(before.get("moves"));
+            long movesAfter = Long.parseLong(after.get("moves"));
+            if (movesAfter > movesBefore) {
+                System.out.println("REGRESSION  " + key + " moves " + movesBefore + " -> " + movesAfter);
+                regressions++;
+            }
+        }
+        double expandedBefore = Double.parseDouble(before.get("expanded"));
+        double expandedAfter = Double.parseDouble(after.get("expanded"));
+        double expandedChange = change(expandedBefore, expandedAfter);
+        if (expandedChange > threshold) {
+            System.out.printf(Locale.ROOT, "REGRESSION  %s expanded %.0f -> %.0f (%+.1f%%)%n", key, expandedBefore, expandedAfter, expandedChange);
+            regressions++;
+        }
+        double p50Before = Double.parseDouble(before.get("p50_ms"));
+        double p50After = Double.parseDouble(after.get("p50_ms"));
+        double p50Change = change(p50Before, p50After);
+        if (Math.abs(p50After - p50Before) >= NOISE_MS) {
+            if (p50Change > threshold) {
+                System.out.printf(Locale.ROOT, "REGRESSION  %s p50 %.3f -> %.3f ms (%+.1f%%)%n", key, p50Before, p50After, p50Change);
+                regressions++;
+            } else if (p50Change < -threshold) {
+                System.out.printf(Locale.ROOT, "IMPROVED    %s p50 %.3f -> %.3f ms (%+.1f%%)%n", key, p50Before, p50After, p50Change);
+            }
+        }
+        return regressions;
+    }
+
+    // Rows of a CSV or JSON Lines report keyed by puzzle and combination.
+    private static Map<String, Map<String, String>> readReport(Path file) throws IOException {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        String[] header = null;
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            Map<String, String> row = new LinkedHashMap<>();
+            if (line.startsWith("{")) {
+                Matcher m = JSON_FIELD.matcher(line);
+                while (m.find()) row.put(m.group(1), unquoteJson(m.group(2).trim()));
+            } else if (header == null) {
+                header = splitCsv(line).toArray(new String[0]);
+                continue;
+            } else {
+                List<String> fields = splitCsv(line);
+                for (int i = 0; i < header.length && i < fields.size(); i++) row.put(header[i], fields.get(i));
+            }
+            for (String column : COLUMNS) {
+                if (!row.containsKey(column)) throw new IOException(file + ": missing column " + column);
+            }
+            String heuristic = row.get("heuristic");
+            rows.put(row.get("puzzle") + " " + row.get("algorithm") + (heuristic.isEmpty() ? "" : ":" + heuristic), row);
+        }
+        return rows;
+    }
+
+    // Every algorithm, paired with every heuristic where it takes one.
+    private static List<String[]> allCombos() {
+        List<String[]> combos = new ArrayList<>();
+        for (String algorithm : Solvers.ALGORITHMS) {
+            if (!Solvers.usesHeuristic(algorithm)) {
+                combos.add(new String[]{algorithm, null});
+                continue;
+            }
+            for (String heuristic : Solvers.HEURISTICS) combos.add(new String[]{algorithm, heuristic});
+        }
+        return combos;
+    }
+
+    // Puzzles by name; files with several puzzles get a #index suffix.
+    private static Map<String, Board> loadPuzzles(List<Path> files) throws IOException {
+        Map<String, Board> puzzles = new LinkedHashMap<>();
+        for (Path file : files) {
+            List<Board> boards = new ArrayList<>();
+            if (file.toString().endsWith(Corpus.EXTENSION)) {
+                try (Corpus corpus = Corpus.open(file)) {
+                    corpus.forEach(boards::add);
+                }
+            } else {
+                try (FileParser parser = new FileParser(file.toString())) {
+                    parser.forEach(boards::add);
+                }
+            }
+            for (int i = 0; i < boards.size(); i++) {
+                puzzles.put(boards.size() == 1 ? file.toString() : file + "#" + (i + 1), boards.get(i));
+            }
+        }
+        return puzzles;
+    }
+
+    // Nearest-rank percentile of sorted values.
+    private static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static double change(double before, double after) {
+        if (before == 0) return after == 0 ? 0 : Double.POSITIVE_INFINITY;
+        return (after - before) / before * 100;
+    }
+
+    private static String format(Object[] row, boolean json) {
+        StringBuilder line = new StringBuilder();
+        if (json) line.append('{');
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            if (json) line.append('"').append(COLUMNS[i]).append("\":");
+            if (i < 4) line.append(json ? Batch.jsonString((String) row[i]) : Batch.csvField((String) row[i])); // Text columns
+            else line.append(row[i]);
+        }
+        if (json) line.append('}');
+        return line.toString();
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String unquoteJson(String value) {
+        if (!value.startsWith("\"")) return value;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i < value.length() - 1; i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = value.charAt(++i);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    sb.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
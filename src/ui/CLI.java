@@ -1,19 +1,28 @@
 package ui;
 
 import algorithm.AS;
+import algorithm.BBFS;
+import algorithm.CachedSolver;
 import algorithm.GBFS;
+import algorithm.HDAS;
 import algorithm.IDAS;
+import algorithm.PIDAS;
 import algorithm.PathFinder;
+import algorithm.RA;
+import algorithm.SolutionCache;
 import algorithm.UCS;
 import core.Board;
 import core.FileParser;
 import core.GameState;
 import core.Move;
 import core.Piece;
+import heuristic.BG;
 import heuristic.BP;
+import heuristic.CachedHeuristic;
 import heuristic.DB;
 import heuristic.Heuristic;
 import heuristic.MD;
+import heuristic.PDB;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
@@ -44,43 +53,63 @@ public class CLI {
             GameState initialState = new GameState(board);
 
             System.out.println("\nSelect algorithm:");
-            System.out.println("1. UCS  2. GBFS  3. A*  4. IDAS");
+            System.out.println("1. UCS  2. GBFS  3. A*  4. IDAS  5. Bidirectional BFS  6. Parallel A*  7. Parallel IDA*  8. Retrograde");
             System.out.print("Choice: ");
             int algoChoice = scanner.nextInt();
 
             Heuristic heuristic = null;
-            if (algoChoice > 1 && algoChoice <= 4) {
+            if ((algoChoice > 1 && algoChoice <= 4) || algoChoice == 6 || algoChoice == 7) {
                 System.out.println("\nSelect heuristic:");
-                System.out.println("1. Manhattan Distance  2. Blocking Pieces  3. Distance+Blocking");
+                System.out.println("1. Manhattan Distance  2. Blocking Pieces  3. Distance+Blocking  4. Pattern Database  5. Blocker Graph");
                 System.out.print("Choice: ");
                 heuristic = switch (scanner.nextInt()) {
                     case 2 -> new BP();
                     case 3 -> new DB();
+                    case 4 -> new PDB();
+                    case 5 -> new BG();
                     default -> new MD();
                 };
+                System.out.print("\nHeuristic cache MB (0 = off): ");
+                int cacheMegabytes = scanner.nextInt();
+                if (cacheMegabytes > 0) heuristic = new CachedHeuristic(heuristic, cacheMegabytes);
+            }
+
+            int tableMegabytes = 0;
+            if (algoChoice == 4) {
+                System.out.print("\nTransposition table MB (0 = off): ");
+                tableMegabytes = scanner.nextInt();
+            }
+
+            int threads = Runtime.getRuntime().availableProcessors();
+            if (algoChoice >= 6 && algoChoice <= 8) {
+                System.out.print("\nWorker threads (0 = " + threads + "): ");
+                int requested = scanner.nextInt();
+                if (requested > 0) threads = requested;
             }
 
             System.out.println("\nInitial Board:");
             printBoard(board, '\0'); 
 
             GameState solutionState;
+            PathFinder solver;
             int nodes;
             long timeMs;
             String algoName;
 
-            if (algoChoice == 1) {
-                UCS solver = new UCS();
-                solutionState = solver.solve(initialState);
-                nodes = solver.getNodesVisited();
-                timeMs = solver.getExecutionTime();
-                algoName = solver.getName();
-            } else if (algoChoice >= 2 && algoChoice <= 4) { 
-                PathFinder solver = switch (algoChoice) {
+            if (algoChoice >= 1 && algoChoice <= 8) { 
+                solver = switch (algoChoice) {
+                    case 1 -> new UCS();
                     case 2 -> new GBFS(heuristic);
                     case 3 -> new AS(heuristic);
-                    case 4 -> new IDAS(heuristic);
+                    case 4 -> new IDAS(heuristic, tableMegabytes);
+                    case 5 -> new BBFS();
+                    case 6 -> new HDAS(heuristic, threads);
+                    case 7 -> new PIDAS(heuristic, threads);
+                    case 8 -> new RA(threads);
                     default -> throw new IllegalArgumentException("Invalid algorithm choice.");
                 };
+                SolutionCache solutionCache = SolutionCache.shared();
+                if (solutionCache != null) solver = new CachedSolver(solver, solutionCache);
                 solutionState = solver.findPath(initialState);
                 nodes = solver.getNodesVisited();
                 timeMs = solver.getExecutionTime();
@@ -104,8 +133,20 @@ public class CLI {
                 if (heuristic != null) System.out.println("Heuristic: " + heuristic.getName());
                 System.out.println("Nodes visited: " + nodes);
                 System.out.println("Time: " + timeMs + " ms");
+                System.out.println("Search: " + solver.getMetrics());
+                if (solver instanceof CachedSolver cachedSolver && cachedSolver.isHit()) {
+                    System.out.println("Solution cache: hit (search visited " + cachedSolver.getOriginalNodes() + " nodes)");
+                }
+                if (heuristic instanceof CachedHeuristic cached) {
+                    System.out.printf("Heuristic cache: %d hits, %d misses (%.1f%%)%n",
+                            cached.getHits(), cached.getMisses(), cached.getHitRate() * 100);
+                }
+                if (solver instanceof CachedSolver cachedSolver && !cachedSolver.isHit()) solver = cachedSolver.getInner();
+                if (solver instanceof IDAS idas) printIterations(idas);
             } else {
-                System.out.println("\nNo solution found.");
+                System.out.println(solver.getOutcome().isStopped()
+                        ? "\nSearch stopped: " + solver.getOutcome() + "."
+                        : "\nNo solution found.");
                  System.out.println("Nodes visited: " + nodes);
                 System.out.println("Time: " + timeMs + " ms");
             }
@@ -117,6 +158,14 @@ public class CLI {
         }
     }
 
+    // Print per-threshold statistics of an IDA* run.
+    private static void printIterations(IDAS idas) {
+        System.out.println("Iterations:");
+        for (IDAS.Iteration it : idas.getIterations()) {
+            System.out.printf("  threshold %d: %d nodes, %.3f ms%n", it.getThreshold(), it.getNodes(), it.getNanos() / 1e6);
+        }
+    }
+
     // Resolve file path.
     private static String resolveFilePath(String fileName) {
         if (fileName.contains(File.separator)) return fileName;
@@ -1,17 +1,28 @@
 package ui;
 
 import algorithm.AS;
+import algorithm.BBFS;
+import algorithm.CachedSolver;
+import algorithm.CancellationToken;
 import algorithm.GBFS;
+import algorithm.HDAS;
 import algorithm.IDAS;
+import algorithm.PIDAS;
 import algorithm.PathFinder;
+import algorithm.RA;
+import algorithm.SearchOutcome;
+import algorithm.SolutionCache;
 import algorithm.UCS;
 import core.Board;
 import core.FileParser;
 import core.GameState;
+import heuristic.BG;
 import heuristic.BP;
+import heuristic.CachedHeuristic;
 import heuristic.DB;
 import heuristic.Heuristic;
 import heuristic.MD;
+import heuristic.PDB;
 import java.awt.AWTException;
 import java.awt.BorderLayout;
 import java.awt.Component;
@@ -24,6 +35,7 @@ import java.util.List;
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -31,7 +43,9 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTextArea;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -40,12 +54,20 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  * Main graphical user interface.
  */
 public class GUI extends JFrame {
+    private static final int HEURISTIC_CACHE_MB = 16;
+    private static final int PROGRESS_INTERVAL = 200_000;
     private BoardPanel boardPanel;
     private JTextArea logArea;
     private JPanel solutionDisplayArea;
     private JButton solveButton;
+    private JButton cancelButton;
+    private CancellationToken cancelToken; // Token of the running search
     private JComboBox<String> algoSelector;
     private JComboBox<String> heuristicSelector;
+    private JSpinner threadSpinner;
+    private JSpinner tableSpinner;
+    private JCheckBox cacheToggle;
+    private JCheckBox reuseToggle;
     private JLabel currentFileLabel;
     private Board currentBoard;
     private String currentPuzzleName;  // Store current puzzle name for screenshots
@@ -74,17 +96,27 @@ public class GUI extends JFrame {
         fileButton.addActionListener(_ -> loadPuzzleFile());
 
         algoSelector = new JComboBox<>(new String[]{
-            "Uniform Cost Search", "Greedy Best-First", "A* Search", "Iterative Deepening A*"
+            "Uniform Cost Search", "Greedy Best-First", "A* Search", "Iterative Deepening A*",
+            "Bidirectional BFS", "Parallel A*", "Parallel IDA*", "Retrograde"
         });
         heuristicSelector = new JComboBox<>(new String[]{
-            "Manhattan Distance", "Blocking Pieces", "Distance + Blocking"
+            "Manhattan Distance", "Blocking Pieces", "Distance + Blocking", "Pattern Database", "Blocker Graph"
         });
-        algoSelector.addActionListener(_ -> heuristicSelector.setEnabled(algoSelector.getSelectedIndex() != 0));
-        heuristicSelector.setEnabled(algoSelector.getSelectedIndex() != 0);
+        int cores = Runtime.getRuntime().availableProcessors();
+        threadSpinner = new JSpinner(new SpinnerNumberModel(cores, 1, Math.max(cores * 4, 64), 1));
+        tableSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 4096, 16)); // IDA* transposition table, 0 = off
+        cacheToggle = new JCheckBox("Cache h");
+        reuseToggle = new JCheckBox("Reuse solutions", SolutionCache.shared() != null);
+        reuseToggle.setEnabled(SolutionCache.shared() != null);
+        algoSelector.addActionListener(_ -> updateSelectors());
+        updateSelectors();
 
         solveButton = new JButton("Solve");
         solveButton.addActionListener(_ -> solvePuzzle());
         solveButton.setEnabled(false);
+        cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(_ -> cancelSearch());
+        cancelButton.setEnabled(false);
 
         panel.add(fileButton);
         panel.add(currentFileLabel);
@@ -92,7 +124,14 @@ public class GUI extends JFrame {
         panel.add(algoSelector);
         panel.add(new JLabel("Heuristic:"));
         panel.add(heuristicSelector);
+        panel.add(cacheToggle);
+        panel.add(new JLabel("Threads:"));
+        panel.add(threadSpinner);
+        panel.add(new JLabel("Table MB:"));
+        panel.add(tableSpinner);
+        panel.add(reuseToggle);
         panel.add(solveButton);
+        panel.add(cancelButton);
         add(panel, BorderLayout.NORTH);
     }
 
@@ -178,6 +217,21 @@ public class GUI extends JFrame {
         pack();
     }
 
+    // Stop the running search at its next budget check.
+    private void cancelSearch() {
+        if (cancelToken == null) return;
+        cancelToken.cancel();
+        cancelButton.setEnabled(false);
+        logArea.append("Cancelling...\n");
+    }
+
+    // Re-enable solving once a search ends.
+    private void finishSearch() {
+        cancelToken = null;
+        cancelButton.setEnabled(false);
+        solveButton.setEnabled(true);
+    }
+
     // Solve the current puzzle.
     private void solvePuzzle() {
         if (currentBoard == null) {
@@ -185,82 +239,119 @@ public class GUI extends JFrame {
             return;
         }
         solveButton.setEnabled(false);
+        CancellationToken token = new CancellationToken();
+        cancelToken = token;
+        cancelButton.setEnabled(true);
         logArea.setText("Solving puzzle...\n");
 
         int algoIdx = algoSelector.getSelectedIndex();
-        Heuristic selectedHeuristic = switch (heuristicSelector.getSelectedIndex()) {
+        int threads = (Integer) threadSpinner.getValue();
+        int tableMegabytes = (Integer) tableSpinner.getValue();
+        boolean reuse = reuseToggle.isSelected();
+        Heuristic baseHeuristic = switch (heuristicSelector.getSelectedIndex()) {
             case 1 -> new BP();
             case 2 -> new DB();
+            case 3 -> new PDB();
+            case 4 -> new BG();
             default -> new MD();
         };
+        Heuristic selectedHeuristic = cacheToggle.isSelected()
+                ? new CachedHeuristic(baseHeuristic, HEURISTIC_CACHE_MB) : baseHeuristic;
+
+        Board board = currentBoard.copy();
+        String algoName = algoSelector.getSelectedItem().toString();
+        String heurName = heuristicSelector.getSelectedItem().toString();
 
         new Thread(() -> {
-            GameState initial = new GameState(currentBoard.copy());
             GameState solutionState;
             int nodes;
+            int cachedNodes;
             long timeMs;
-            String algoName = algoSelector.getSelectedItem().toString();
-            String heurName = heuristicSelector.getSelectedItem().toString();
+            String metrics;
+            SearchOutcome outcome;
 
             try {
-                if (algoIdx == 0) {
-                    UCS solver = new UCS();
-                    solutionState = solver.solve(initial);
-                    nodes = solver.getNodesVisited();
-                    timeMs = solver.getExecutionTime();
-                } else {
-                    PathFinder solver = switch (algoIdx) {
-                        case 1 -> new GBFS(selectedHeuristic);
-                        case 2 -> new AS(selectedHeuristic);
-                        case 3 -> new IDAS(selectedHeuristic);
-                        default -> throw new IllegalStateException("Invalid algorithm index.");
-                    };
-                    solutionState = solver.findPath(initial);
-                    nodes = solver.getNodesVisited();
-                    timeMs = solver.getExecutionTime();
-                }
-            } catch (IllegalStateException ex) {
-                 final String errorMsg = "Solver error: " + ex.getMessage();
+                GameState initial = new GameState(board);
+                PathFinder solver = switch (algoIdx) {
+                    case 0 -> new UCS();
+                    case 1 -> new GBFS(selectedHeuristic);
+                    case 2 -> new AS(selectedHeuristic);
+                    case 3 -> new IDAS(selectedHeuristic, tableMegabytes);
+                    case 4 -> new BBFS();
+                    case 5 -> new HDAS(selectedHeuristic, threads);
+                    case 6 -> new PIDAS(selectedHeuristic, threads);
+                    case 7 -> new RA(threads);
+                    default -> throw new IllegalStateException("Invalid algorithm index.");
+                };
+                if (reuse) solver = new CachedSolver(solver, SolutionCache.shared());
+                solver.setListener(m -> {
+                    String line = String.format("Searching: %d nodes expanded, %d ms%n", m.getExpanded(), m.getNanos() / 1_000_000);
+                    SwingUtilities.invokeLater(() -> logArea.append(line));
+                }, PROGRESS_INTERVAL);
+                solver.setCancellationToken(token);
+                solutionState = solver.findPath(initial);
+                outcome = solver.getOutcome();
+                nodes = solver.getNodesVisited();
+                timeMs = solver.getExecutionTime();
+                cachedNodes = solver instanceof CachedSolver c && c.isHit() ? c.getOriginalNodes() : -1;
+                metrics = solver.getMetrics().toString();
+            } catch (Throwable ex) { // Oversized board, PDB entry limit, bad thread count, full heap
+                 final String errorMsg = "Solver error: " + (ex instanceof Error ? ex.toString() : ex.getMessage());
                  SwingUtilities.invokeLater(() -> {
                     logArea.append(errorMsg + "\n");
-                    solveButton.setEnabled(true);
+                    finishSearch();
                  });
                  return;
             }
 
             final GameState finalSolution = solutionState;
             final int finalNodes = nodes;
+            final int finalCachedNodes = cachedNodes;
             final long finalTimeMs = timeMs;
-            final String finalHeurName = (algoIdx != 0) ? heurName : null;
+            final String finalMetrics = metrics;
+            final SearchOutcome finalOutcome = outcome;
+            final String finalHeurName = usesHeuristic(algoIdx) ? heurName : null;
             final String finalAlgoName = algoName.replaceAll("\\s+", "");
 
             SwingUtilities.invokeLater(() -> {
-                if (finalSolution != null) {
-                    List<GameState> path = finalSolution.getSolutionPath();
-                    displaySolutionAnimation(path);
-                    logArea.append("Solution: " + (path.size() - 1) + " moves.\n");
+                try {
+                    if (finalSolution != null) {
+                        List<GameState> path = finalSolution.getSolutionPath();
+                        displaySolutionAnimation(path);
+                        logArea.append("Solution: " + (path.size() - 1) + " moves.\n");
                     
-                    // Take screenshot of final state
-                    new Thread(() -> {
-                        try {
-                            // Jump to the last state in the animation
-                            boardPanel.updateBoard(path.get(path.size() - 1).getBoard());
-                            Thread.sleep(500);
-                            takeScreenshot("final_" + finalAlgoName);
-                        } catch (InterruptedException ex) {
-                            SwingUtilities.invokeLater(() -> 
-                                logArea.append("Failed to capture final state screenshot: " + ex.getMessage() + "\n")
-                            );
-                        }
-                    }).start();
-                } else {
-                    logArea.append("No solution found.\n");
+                        // Take screenshot of final state
+                        new Thread(() -> {
+                            try {
+                                // Jump to the last state in the animation
+                                boardPanel.updateBoard(path.get(path.size() - 1).getBoard());
+                                Thread.sleep(500);
+                                takeScreenshot("final_" + finalAlgoName);
+                            } catch (InterruptedException ex) {
+                                SwingUtilities.invokeLater(() -> 
+                                    logArea.append("Failed to capture final state screenshot: " + ex.getMessage() + "\n")
+                                );
+                            }
+                        }).start();
+                    } else if (finalOutcome.isStopped()) {
+                        logArea.append("Search stopped: " + finalOutcome + ".\n");
+                    } else {
+                        logArea.append("No solution found.\n");
+                    }
+                    logArea.append("Algorithm: " + finalAlgoName + "\n");
+                    if (finalHeurName != null) logArea.append("Heuristic: " + finalHeurName + "\n");
+                    logArea.append("Nodes visited: " + finalNodes + "\n");
+                    logArea.append("Time: " + finalTimeMs + " ms\n");
+                    logArea.append("Search: " + finalMetrics + "\n");
+                    if (finalCachedNodes >= 0) {
+                        logArea.append("Solution cache: hit (search visited " + finalCachedNodes + " nodes)\n");
+                    }
+                    if (finalHeurName != null && selectedHeuristic instanceof CachedHeuristic cached) {
+                        logArea.append(String.format("Heuristic cache hit rate: %.1f%%%n", cached.getHitRate() * 100));
+                    }
+                } finally {
+                    finishSearch();
                 }
-                logArea.append("Algorithm: " + finalAlgoName + "\n");
-                if (finalHeurName != null) logArea.append("Heuristic: " + finalHeurName + "\n");
-                logArea.append("Nodes visited: " + finalNodes + "\n");
-                logArea.append("Time: " + finalTimeMs + " ms\n");
-                solveButton.setEnabled(true);
             });
         }).start();
     }
@@ -286,6 +377,20 @@ public class GUI extends JFrame {
         animation.start();
     }
 
+    // Check if an algorithm takes a heuristic.
+    private static boolean usesHeuristic(int algoIdx) {
+        return (algoIdx >= 1 && algoIdx <= 3) || algoIdx == 5 || algoIdx == 6;
+    }
+
+    // Enable the options the selected algorithm uses.
+    private void updateSelectors() {
+        int algoIdx = algoSelector.getSelectedIndex();
+        heuristicSelector.setEnabled(usesHeuristic(algoIdx));
+        cacheToggle.setEnabled(usesHeuristic(algoIdx));
+        threadSpinner.setEnabled(algoIdx >= 5 && algoIdx <= 7);
+        tableSpinner.setEnabled(algoIdx == 3);
+    }
+
     // Take screenshot of the application window
     private void takeScreenshot(String state) {
         try {
@@ -303,16 +408,22 @@ public class GUI extends JFrame {
                     case 1 -> algoShortName = "GBFS";
                     case 2 -> algoShortName = "AS";
                     case 3 -> algoShortName = "IDAS";
+                    case 4 -> algoShortName = "BBFS";
+                    case 5 -> algoShortName = "HDAS";
+                    case 6 -> algoShortName = "PIDAS";
+                    case 7 -> algoShortName = "RA";
                     default -> algoShortName = "Unknown";
                 }
                 
                 // Get heuristic short name
-                if (algoIdx != 0) {
+                if (usesHeuristic(algoIdx)) {
                     int heurIdx = heuristicSelector.getSelectedIndex();
                     switch (heurIdx) {
                         case 0 -> heurShortName = "MD";
                         case 1 -> heurShortName = "BP";
                         case 2 -> heurShortName = "DB";
+                        case 3 -> heurShortName = "PDB";
+                        case 4 -> heurShortName = "BG";
                         default -> heurShortName = "Unknown";
                     }
                     
@@ -321,7 +432,7 @@ public class GUI extends JFrame {
                                 File.separator + algoShortName + 
                                 File.separator + heurShortName;
                 } else {
-                    // For UCS with no heuristic
+                    // For algorithms with no heuristic
                     targetDir = baseDir + File.separator + "final" + 
                                 File.separator + algoShortName;
                 }